@@ -0,0 +1,176 @@
+package com.xerdnu.blastedimage;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.content.res.AssetManager;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+// Set of all files under assets/blasted-image so hybrid asset lookups are a set membership check instead of an AssetManager.open per image.
+// The index is loaded from (in order):
+//   1. assets/blasted-image-index.txt generated at build time by the Expo plugin (blastedAssets.js)
+//   2. a copy in the cache dir written on a previous launch of the same APK
+//   3. a recursive AssetManager.list of blasted-image/
+// Everything runs on a background thread, lookups made before the index is ready fall back to probing the asset.
+public class BlastedAssetIndex {
+
+    public static final String ASSETS_DIR = "blasted-image";
+    public static final String BUILD_INDEX = "blasted-image-index.txt";
+    private static final String CACHED_INDEX = "blasted-image-index.txt";
+
+    private final Context context;
+    private volatile Set<String> files;
+    private boolean loading = false;
+
+    public BlastedAssetIndex(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    public boolean contains(String filePath) {
+        Set<String> index = files;
+        if (index != null) {
+            return index.contains(filePath);
+        }
+
+        loadAsync();
+        return probe(filePath);
+    }
+
+    private synchronized void loadAsync() {
+        if (loading) {
+            return;
+        }
+        loading = true;
+
+        BlastedExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    files = Collections.unmodifiableSet(load());
+                } catch (RuntimeException e) {
+                    Log.e("BlastedAssetIndex", "Failed to load asset index", e);
+                } finally {
+                    // After a failure the next lookup tries again, lookups keep probing meanwhile
+                    synchronized (BlastedAssetIndex.this) {
+                        loading = false;
+                    }
+                }
+            }
+        });
+    }
+
+    private Set<String> load() {
+        AssetManager assetManager = context.getAssets();
+        Set<String> index = new HashSet<>();
+
+        try {
+            readLines(assetManager.open(BUILD_INDEX), index);
+            Log.d("BlastedAssetIndex", "Loaded build time index with " + index.size() + " files");
+            return index;
+        } catch (IOException e) {
+            // No build time index, use the cached or listed one
+        }
+
+        String apkVersion = getApkVersion();
+        File cachedIndex = new File(context.getCacheDir(), CACHED_INDEX);
+
+        try {
+            Set<String> cached = new HashSet<>();
+            String version = readLines(new FileInputStream(cachedIndex), cached);
+            if (apkVersion.equals(version)) {
+                Log.d("BlastedAssetIndex", "Loaded cached index with " + cached.size() + " files");
+                return cached;
+            }
+        } catch (IOException e) {
+            // No cached index yet
+        }
+
+        listAssets(assetManager, ASSETS_DIR, index);
+        writeCachedIndex(cachedIndex, apkVersion, index);
+        Log.d("BlastedAssetIndex", "Indexed " + index.size() + " files");
+        return index;
+    }
+
+    // Directories are returned by list() with children, files with none
+    private static void listAssets(AssetManager assetManager, String path, Set<String> index) {
+        try {
+            String[] children = assetManager.list(path);
+            if (children == null || children.length == 0) {
+                index.add(path);
+                return;
+            }
+            for (String child : children) {
+                listAssets(assetManager, path + "/" + child, index);
+            }
+        } catch (IOException e) {
+            Log.e("BlastedAssetIndex", "Failed to list " + path, e);
+        }
+    }
+
+    // Returns the first line if it is a version header ("#" prefix), adds the remaining lines to the index
+    private static String readLines(InputStream stream, Set<String> index) throws IOException {
+        String version = null;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#")) {
+                    if (version == null) {
+                        version = line.substring(1);
+                    }
+                } else if (!line.isEmpty()) {
+                    index.add(line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return version;
+    }
+
+    private static void writeCachedIndex(File file, String apkVersion, Set<String> index) {
+        try {
+            Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+            try {
+                writer.write("#" + apkVersion + "\n");
+                for (String path : index) {
+                    writer.write(path + "\n");
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            Log.e("BlastedAssetIndex", "Failed to write cached index", e);
+        }
+    }
+
+    // Changes whenever the APK is installed or updated
+    private String getApkVersion() {
+        try {
+            return String.valueOf(context.getPackageManager().getPackageInfo(context.getPackageName(), 0).lastUpdateTime);
+        } catch (PackageManager.NameNotFoundException e) {
+            return "";
+        }
+    }
+
+    private boolean probe(String filePath) {
+        try {
+            context.getAssets().open(filePath).close();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
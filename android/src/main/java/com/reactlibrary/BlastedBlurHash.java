@@ -0,0 +1,136 @@
+package com.xerdnu.blastedimage;
+
+import android.graphics.Bitmap;
+import android.util.LruCache;
+
+import androidx.annotation.Nullable;
+
+// Decodes a BlurHash string (https://blurha.sh) into a small bitmap used as placeholder while the image loads.
+// The bitmap is stretched by the ImageView so a few pixels per component are enough.
+public final class BlastedBlurHash {
+
+    private static final String CHARACTERS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~";
+    private static final int SIZE = 32;
+
+    // Placeholders are tiny (4kb each), keep the ones used by the current screen around
+    private static final LruCache<String, Bitmap> cache = new LruCache<>(64);
+
+    private BlastedBlurHash() {
+    }
+
+    @Nullable
+    public static Bitmap decode(@Nullable String hash) {
+        if (hash == null || hash.length() < 6) {
+            return null;
+        }
+
+        Bitmap bitmap = cache.get(hash);
+        if (bitmap != null) {
+            return bitmap;
+        }
+
+        try {
+            bitmap = decode(hash, SIZE, SIZE);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        cache.put(hash, bitmap);
+        return bitmap;
+    }
+
+    private static Bitmap decode(String hash, int width, int height) {
+        int sizeFlag = decode83(hash, 0, 1);
+        int numY = sizeFlag / 9 + 1;
+        int numX = sizeFlag % 9 + 1;
+
+        if (hash.length() != 4 + 2 * numX * numY) {
+            throw new IllegalArgumentException("Invalid BlurHash length");
+        }
+
+        float maxValue = (decode83(hash, 1, 2) + 1) / 166f;
+        float[][] colors = new float[numX * numY][];
+        colors[0] = decodeDc(decode83(hash, 2, 6));
+        for (int i = 1; i < colors.length; i++) {
+            colors[i] = decodeAc(decode83(hash, 4 + i * 2, 6 + i * 2), maxValue);
+        }
+
+        // The cosines only depend on one axis each, compute them once
+        double[] cosX = new double[width * numX];
+        for (int x = 0; x < width; x++) {
+            for (int i = 0; i < numX; i++) {
+                cosX[x * numX + i] = Math.cos(Math.PI * x * i / width);
+            }
+        }
+        double[] cosY = new double[height * numY];
+        for (int y = 0; y < height; y++) {
+            for (int j = 0; j < numY; j++) {
+                cosY[y * numY + j] = Math.cos(Math.PI * y * j / height);
+            }
+        }
+
+        int[] pixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                float r = 0, g = 0, b = 0;
+                for (int j = 0; j < numY; j++) {
+                    for (int i = 0; i < numX; i++) {
+                        float basis = (float) (cosX[x * numX + i] * cosY[y * numY + j]);
+                        float[] color = colors[j * numX + i];
+                        r += color[0] * basis;
+                        g += color[1] * basis;
+                        b += color[2] * basis;
+                    }
+                }
+                pixels[y * width + x] = 0xFF000000 | (linearToSrgb(r) << 16) | (linearToSrgb(g) << 8) | linearToSrgb(b);
+            }
+        }
+
+        return Bitmap.createBitmap(pixels, width, height, Bitmap.Config.ARGB_8888);
+    }
+
+    private static int decode83(String hash, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = CHARACTERS.indexOf(hash.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid BlurHash character");
+            }
+            value = value * 83 + digit;
+        }
+        return value;
+    }
+
+    private static float[] decodeDc(int value) {
+        return new float[] {
+            srgbToLinear(value >> 16),
+            srgbToLinear((value >> 8) & 255),
+            srgbToLinear(value & 255)
+        };
+    }
+
+    private static float[] decodeAc(int value, float maxValue) {
+        return new float[] {
+            signedPow2((value / (19 * 19) - 9) / 9f) * maxValue,
+            signedPow2(((value / 19) % 19 - 9) / 9f) * maxValue,
+            signedPow2((value % 19 - 9) / 9f) * maxValue
+        };
+    }
+
+    private static float signedPow2(float value) {
+        return Math.copySign(value * value, value);
+    }
+
+    private static float srgbToLinear(int value) {
+        float v = value / 255f;
+        return v <= 0.04045f ? v / 12.92f : (float) Math.pow((v + 0.055f) / 1.055f, 2.4f);
+    }
+
+    private static int linearToSrgb(float value) {
+        float v = Math.max(0f, Math.min(1f, value));
+        if (v <= 0.0031308f) {
+            return (int) (v * 12.92f * 255f + 0.5f);
+        }
+        return (int) ((1.055f * Math.pow(v, 1 / 2.4f) - 0.055f) * 255f + 0.5f);
+    }
+}
@@ -0,0 +1,191 @@
+package com.xerdnu.blastedimage;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.load.engine.cache.DiskCache;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+
+// Packs disk cache entries of remote images into one file and unpacks them into the disk cache of another install.
+// Format: magic, version, entry count, then per entry the cache key and the original downloaded bytes.
+// Bytes are moved between files with FileChannel transfers so they never pass through the Java heap.
+// Must not run on the UI thread, BlastedImageModule runs it on the maintenance executor.
+public final class BlastedCacheBundle {
+
+    private static final byte[] MAGIC = "BLASTEDPACK".getBytes(Charset.forName("US-ASCII"));
+    private static final int VERSION = 1;
+    private static final int MAX_KEY_LENGTH = 64 * 1024;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    public static final class Result {
+        public int entries = 0;
+        public int skipped = 0;
+        public long bytes = 0;
+    }
+
+    private BlastedCacheBundle() {
+    }
+
+    // Keys that are not in the disk cache are skipped
+    public static Result export(List<String> keys, File destination) throws IOException {
+        DiskCache diskCache = requireDiskCache();
+        Result result = new Result();
+
+        File parent = destination.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Failed to create " + parent);
+        }
+
+        try (FileChannel out = new FileOutputStream(destination).getChannel()) {
+            ByteBuffer header = ByteBuffer.allocate(MAGIC.length + 8);
+            header.put(MAGIC).putInt(VERSION).putInt(0); // Count is written once known
+            header.flip();
+            writeFully(out, header);
+
+            for (String key : keys) {
+                File file = diskCache.get(new BlastedDiskCacheFactory.DataKey(key));
+                if (file == null) {
+                    result.skipped++;
+                    continue;
+                }
+
+                try (FileChannel in = new FileInputStream(file).getChannel()) {
+                    byte[] keyBytes = key.getBytes(UTF8);
+                    long size = in.size();
+                    ByteBuffer entry = ByteBuffer.allocate(4 + keyBytes.length + 8);
+                    entry.putInt(keyBytes.length).put(keyBytes).putLong(size);
+                    entry.flip();
+                    writeFully(out, entry);
+
+                    long position = 0;
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                    result.entries++;
+                    result.bytes += size;
+                } catch (IOException e) {
+                    // Evicted between get() and open, the entry header was not written yet
+                    Log.w("BlastedCacheBundle", "Skipping " + key + ": " + e.getMessage());
+                    result.skipped++;
+                }
+            }
+
+            ByteBuffer count = ByteBuffer.allocate(4);
+            count.putInt(result.entries).flip();
+            out.write(count, MAGIC.length + 4);
+        }
+        return result;
+    }
+
+    // Existing entries are kept unless overwrite is set. Imported keys are added to the cache index with the given ttl.
+    public static Result importBundle(Context context, File source, boolean overwrite, long ttlSeconds) throws IOException {
+        DiskCache diskCache = requireDiskCache();
+        BlastedCacheIndex cacheIndex = BlastedCacheIndex.getInstance(context);
+        Result result = new Result();
+
+        try (final FileChannel in = new FileInputStream(source).getChannel()) {
+            ByteBuffer header = readFully(in, MAGIC.length + 8);
+            byte[] magic = new byte[MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a cache bundle");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported cache bundle version " + version);
+            }
+            int count = header.getInt();
+
+            for (int i = 0; i < count; i++) {
+                int keyLength = readFully(in, 4).getInt();
+                if (keyLength <= 0 || keyLength > MAX_KEY_LENGTH) {
+                    throw new IOException("Corrupt cache bundle entry " + i);
+                }
+                String key = new String(readFully(in, keyLength).array(), UTF8);
+                final long size = readFully(in, 8).getLong();
+                final long start = in.position();
+                if (size < 0 || start + size > in.size()) {
+                    throw new IOException("Truncated cache bundle entry " + i);
+                }
+
+                BlastedDiskCacheFactory.DataKey dataKey = new BlastedDiskCacheFactory.DataKey(key);
+                if (diskCache.get(dataKey) != null) {
+                    if (!overwrite) {
+                        in.position(start + size);
+                        result.skipped++;
+                        continue;
+                    }
+                    diskCache.delete(dataKey);
+                }
+
+                diskCache.put(dataKey, new DiskCache.Writer() {
+                    @Override
+                    public boolean write(@NonNull File file) {
+                        try (FileChannel out = new FileOutputStream(file).getChannel()) {
+                            long written = 0;
+                            while (written < size) {
+                                long transferred = out.transferFrom(in, written, size - written);
+                                if (transferred <= 0) {
+                                    return false;
+                                }
+                                written += transferred;
+                            }
+                            return true;
+                        } catch (IOException e) {
+                            Log.e("BlastedCacheBundle", "Failed to write cache entry", e);
+                            return false;
+                        }
+                    }
+                });
+
+                // The writer may not have consumed the entry (write failed), continue at the next one either way
+                in.position(start + size);
+                if (diskCache.get(dataKey) != null) {
+                    cacheIndex.touch(key, true, size, ttlSeconds);
+                    result.entries++;
+                    result.bytes += size;
+                } else {
+                    result.skipped++;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static DiskCache requireDiskCache() throws IOException {
+        DiskCache diskCache = BlastedDiskCacheFactory.getDiskCache();
+        if (diskCache == null) {
+            throw new IOException("Disk cache is not available");
+        }
+        return diskCache;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Unexpected end of cache bundle");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
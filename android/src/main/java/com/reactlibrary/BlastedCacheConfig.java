@@ -0,0 +1,176 @@
+package com.xerdnu.blastedimage;
+
+import android.app.ActivityManager;
+import android.content.Context;
+
+import androidx.annotation.Nullable;
+
+import java.io.File;
+
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.MemoryCategory;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.cache.DiskCache;
+import com.bumptech.glide.load.engine.cache.ExternalPreferredCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.executor.GlideExecutor;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+
+// Cache sizes used when Glide is initialized. Set from JS with BlastedImage.configure() before the first image is loaded.
+// Memory sizes default to a fraction of the app's heap class so low-RAM devices get a smaller cache.
+public class BlastedCacheConfig {
+
+    public static final float DEFAULT_MEMORY_CACHE_FRACTION = 0.25f;
+    public static final float DEFAULT_BITMAP_POOL_FRACTION = 0.15f;
+    public static final float DEFAULT_ANIMATED_CACHE_FRACTION = 0.25f; // Share of the memory cache animated images may use
+    public static final long DEFAULT_DISK_CACHE_SIZE = 1024L * 1024 * 1024; // 1gb disk cache
+
+    private float memoryCacheFraction = DEFAULT_MEMORY_CACHE_FRACTION;
+    private long memoryCacheSize = 0; // 0 = use fraction
+    private float bitmapPoolFraction = DEFAULT_BITMAP_POOL_FRACTION;
+    private long bitmapPoolSize = 0; // 0 = use fraction
+    private float animatedCacheFraction = DEFAULT_ANIMATED_CACHE_FRACTION;
+    private long diskCacheSize = DEFAULT_DISK_CACHE_SIZE;
+    private String diskCacheDirectory = DiskCache.Factory.DEFAULT_DISK_CACHE_DIR;
+    private boolean externalDiskCache = false;
+    private MemoryCategory memoryCategory = MemoryCategory.NORMAL;
+    private long cacheTtl = 0; // Seconds, 0 = images only leave the disk cache when it's full
+    private int sourceThreads = 0; // 0 = Glide default for all thread counts
+    private int diskCacheThreads = 0;
+    private int animationThreads = 0;
+
+    public synchronized void update(ReadableMap options) {
+        if (options.hasKey("memoryCacheFraction")) {
+            memoryCacheFraction = clampFraction((float) options.getDouble("memoryCacheFraction"), DEFAULT_MEMORY_CACHE_FRACTION);
+        }
+        if (options.hasKey("memoryCacheSize")) {
+            memoryCacheSize = Math.max(0, (long) options.getDouble("memoryCacheSize"));
+        }
+        if (options.hasKey("bitmapPoolFraction")) {
+            bitmapPoolFraction = clampFraction((float) options.getDouble("bitmapPoolFraction"), DEFAULT_BITMAP_POOL_FRACTION);
+        }
+        if (options.hasKey("bitmapPoolSize")) {
+            bitmapPoolSize = Math.max(0, (long) options.getDouble("bitmapPoolSize"));
+        }
+        if (options.hasKey("animatedCacheFraction")) {
+            animatedCacheFraction = clampFraction((float) options.getDouble("animatedCacheFraction"), DEFAULT_ANIMATED_CACHE_FRACTION);
+        }
+        if (options.hasKey("diskCacheSize")) {
+            diskCacheSize = Math.max(1, (long) options.getDouble("diskCacheSize"));
+        }
+        if (options.hasKey("diskCacheDirectory")) {
+            String directory = options.getString("diskCacheDirectory");
+            diskCacheDirectory = directory != null && !directory.isEmpty() ? directory : DiskCache.Factory.DEFAULT_DISK_CACHE_DIR;
+        }
+        if (options.hasKey("diskCacheLocation")) {
+            externalDiskCache = "external".equals(options.getString("diskCacheLocation"));
+        }
+        if (options.hasKey("memoryCategory")) {
+            memoryCategory = parseMemoryCategory(options.getString("memoryCategory"), memoryCategory);
+        }
+        if (options.hasKey("cacheTtl")) {
+            cacheTtl = Math.max(0, (long) options.getDouble("cacheTtl"));
+        }
+        if (options.hasKey("sourceThreads")) {
+            sourceThreads = Math.max(0, options.getInt("sourceThreads"));
+        }
+        if (options.hasKey("diskCacheThreads")) {
+            diskCacheThreads = Math.max(0, options.getInt("diskCacheThreads"));
+        }
+        if (options.hasKey("animationThreads")) {
+            animationThreads = Math.max(0, options.getInt("animationThreads"));
+        }
+    }
+
+    public synchronized MemoryCategory getMemoryCategory() {
+        return memoryCategory;
+    }
+
+    public synchronized long getMemoryCacheSize(Context context) {
+        return memoryCacheSize > 0 ? memoryCacheSize : fractionOfHeap(context, memoryCacheFraction);
+    }
+
+    public synchronized long getBitmapPoolSize(Context context) {
+        return bitmapPoolSize > 0 ? bitmapPoolSize : fractionOfHeap(context, bitmapPoolFraction);
+    }
+
+    public synchronized long getCacheTtl() {
+        return cacheTtl;
+    }
+
+    // Where the disk cache factories put their files, same fallback as ExternalPreferredCacheDiskCacheFactory
+    public synchronized File getDiskCacheDirectory(Context context) {
+        if (externalDiskCache) {
+            File external = context.getExternalCacheDir();
+            if (external != null) {
+                return new File(external, diskCacheDirectory);
+            }
+        }
+        return new File(context.getCacheDir(), diskCacheDirectory);
+    }
+
+    public synchronized GlideBuilder createGlideBuilder(Context context) {
+        DiskCache.Factory diskCacheFactory = externalDiskCache
+            ? new ExternalPreferredCacheDiskCacheFactory(context, diskCacheDirectory, diskCacheSize)
+            : new InternalCacheDiskCacheFactory(context, diskCacheDirectory, diskCacheSize);
+
+        GlideBuilder builder = new GlideBuilder()
+            .setDiskCache(new BlastedDiskCacheFactory(diskCacheFactory))
+            .setMemoryCache(new BlastedMemoryCache(getMemoryCacheSize(context), animatedCacheFraction))
+            .setBitmapPool(new LruBitmapPool(getBitmapPoolSize(context)));
+
+        // Source threads fetch and decode, disk cache threads read cached data, animation threads decode GIF frames
+        if (sourceThreads > 0) {
+            builder.setSourceExecutor(GlideExecutor.newSourceBuilder().setThreadCount(sourceThreads).build());
+        }
+        if (diskCacheThreads > 0) {
+            builder.setDiskCacheExecutor(GlideExecutor.newDiskCacheBuilder().setThreadCount(diskCacheThreads).build());
+        }
+        if (animationThreads > 0) {
+            builder.setAnimationExecutor(GlideExecutor.newAnimationBuilder().setThreadCount(animationThreads).build());
+        }
+        return builder;
+    }
+
+    public synchronized WritableMap toWritableMap(Context context) {
+        WritableMap map = Arguments.createMap();
+        map.putDouble("memoryCacheSize", getMemoryCacheSize(context));
+        map.putDouble("bitmapPoolSize", getBitmapPoolSize(context));
+        map.putDouble("animatedCacheFraction", animatedCacheFraction);
+        map.putDouble("diskCacheSize", diskCacheSize);
+        map.putString("diskCacheDirectory", diskCacheDirectory);
+        map.putString("diskCacheLocation", externalDiskCache ? "external" : "internal");
+        map.putDouble("cacheTtl", cacheTtl);
+        map.putInt("sourceThreads", sourceThreads > 0 ? sourceThreads : GlideExecutor.calculateBestThreadCount());
+        map.putInt("diskCacheThreads", diskCacheThreads > 0 ? diskCacheThreads : 1);
+        map.putInt("animationThreads", animationThreads > 0 ? animationThreads : GlideExecutor.calculateBestThreadCount() >= 4 ? 2 : 1);
+        return map;
+    }
+
+    public static MemoryCategory parseMemoryCategory(@Nullable String category, MemoryCategory fallback) {
+        if ("low".equals(category)) {
+            return MemoryCategory.LOW;
+        } else if ("normal".equals(category)) {
+            return MemoryCategory.NORMAL;
+        } else if ("high".equals(category)) {
+            return MemoryCategory.HIGH;
+        }
+        return fallback;
+    }
+
+    private static float clampFraction(float fraction, float fallback) {
+        return fraction > 0f && fraction <= 1f ? fraction : fallback;
+    }
+
+    // The heap class is what the app may use before it risks an OOM, low-RAM devices get half of it
+    private static long fractionOfHeap(Context context, float fraction) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        long heapBytes = (long) activityManager.getMemoryClass() * 1024 * 1024;
+        if (activityManager.isLowRamDevice()) {
+            fraction /= 2;
+        }
+        return (long) (heapBytes * fraction);
+    }
+}
@@ -0,0 +1,396 @@
+package com.xerdnu.blastedimage;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.cache.DiskCache;
+import com.bumptech.glide.load.model.GlideUrl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Index of the remote images in Glide's disk cache, keyed by cache key (the url or BlastedGlideUrl's custom key).
+// Rewritten CDN urls are cached per variant under "<base key><VARIANT_SEPARATOR><width>x<height>[.<format>]" (see BlastedUrlRewriter),
+// lookups by the base key also find its variants.
+// Records size, last access and expiry in SQLite. All entries are mirrored in memory so lookups never touch the database,
+// writes go through the single background executor. Only downloads and disk cache hits are recorded, downloads are written
+// right away while last access updates are collected in memory and written together every ACCESS_FLUSH_DELAY. Deleting from the disk cache runs on the maintenance executor.
+public class BlastedCacheIndex extends SQLiteOpenHelper {
+
+    private static final String DATABASE = "blasted_image_cache_index.db";
+    private static final int VERSION = 1;
+    private static final String TABLE = "entries";
+    private static final long PRUNE_INTERVAL = 60 * 60 * 1000; // At most once per hour
+    private static final long ACCESS_FLUSH_DELAY = 30 * 1000;
+
+    private static volatile BlastedCacheIndex instance;
+
+    public static final class Entry {
+        public final long size;
+        public final long lastAccess;
+        public final long expires; // 0 = never
+
+        Entry(long size, long lastAccess, long expires) {
+            this.size = size;
+            this.lastAccess = lastAccess;
+            this.expires = expires;
+        }
+
+        boolean isExpired(long now) {
+            return expires > 0 && expires <= now;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> variants = new ConcurrentHashMap<>(); // Base key -> indexed variant keys
+    private volatile boolean loaded = false;
+    private volatile long lastPrune = 0;
+    private volatile long defaultTtlSeconds = 0;
+    private final ConcurrentHashMap<String, Entry> pendingAccess = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    private BlastedCacheIndex(Context context) {
+        super(context.getApplicationContext(), DATABASE, null, VERSION);
+    }
+
+    public static BlastedCacheIndex getInstance(Context context) {
+        if (instance == null) {
+            synchronized (BlastedCacheIndex.class) {
+                if (instance == null) {
+                    instance = new BlastedCacheIndex(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE + " (key TEXT PRIMARY KEY, size INTEGER NOT NULL, last_access INTEGER NOT NULL, expires INTEGER NOT NULL)");
+        db.execSQL("CREATE INDEX entries_expires ON " + TABLE + " (expires)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE);
+        onCreate(db);
+    }
+
+    // Used for downloads without an explicit ttl, 0 = keep until evicted by size
+    public void setDefaultTtl(long seconds) {
+        defaultTtlSeconds = Math.max(0, seconds);
+    }
+
+    // Loads the mirror and prunes expired entries, throttled to once per PRUNE_INTERVAL
+    public void prune() {
+        long started = System.currentTimeMillis();
+        if (started - lastPrune < PRUNE_INTERVAL) {
+            return;
+        }
+        lastPrune = started;
+
+        BlastedExecutors.maintenance().execute(new Runnable() {
+            @Override
+            public void run() {
+                load();
+
+                long now = System.currentTimeMillis();
+                List<String> expired = new ArrayList<>();
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    if (entry.getValue().isExpired(now)) {
+                        expired.add(entry.getKey());
+                    }
+                }
+                for (String key : expired) {
+                    deleteNow(key);
+                }
+                if (!expired.isEmpty()) {
+                    Log.d("BlastedCacheIndex", "Pruned " + expired.size() + " expired images");
+                }
+            }
+        });
+    }
+
+    // Memory cache and local loads don't read the disk cache, they would only add writes to the hottest path
+    public static void recordLoad(Context context, Object model, DataSource dataSource, long bytesDownloaded, long ttlSeconds) {
+        boolean diskOrNetwork = dataSource == DataSource.REMOTE
+            || dataSource == DataSource.DATA_DISK_CACHE
+            || dataSource == DataSource.RESOURCE_DISK_CACHE;
+        if (model instanceof GlideUrl && diskOrNetwork) {
+            getInstance(context).touch(((GlideUrl) model).getCacheKey(), dataSource == DataSource.REMOTE, bytesDownloaded, ttlSeconds);
+        }
+    }
+
+    // Called when a load completes. Downloads set size and expiry, cache hits only update the last access.
+    public void touch(final String key, final boolean downloaded, final long downloadedBytes, long ttlSeconds) {
+        final long now = System.currentTimeMillis();
+        Entry previous = entries.get(key);
+        long ttl = ttlSeconds > 0 ? ttlSeconds : defaultTtlSeconds;
+
+        long size = downloaded ? downloadedBytes : previous != null ? previous.size : 0;
+        long expires = downloaded ? (ttl > 0 ? now + ttl * 1000 : 0) : previous != null ? previous.expires : 0;
+        final Entry entry = new Entry(size, now, expires);
+        putEntry(key, entry);
+
+        if (!downloaded) {
+            pendingAccess.put(key, entry);
+            if (flushScheduled.compareAndSet(false, true)) {
+                BlastedExecutors.scheduler().schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        flushAccessTimes();
+                    }
+                }, ACCESS_FLUSH_DELAY, TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+
+        pendingAccess.remove(key);
+        BlastedExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    write(getWritableDatabase(), key, entry);
+                } catch (Exception e) {
+                    Log.e("BlastedCacheIndex", "Failed to update cache index", e);
+                }
+            }
+        });
+    }
+
+    // Writes the collected last access updates in one transaction
+    public void flushAccessTimes() {
+        BlastedExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                flushScheduled.set(false);
+                if (pendingAccess.isEmpty()) {
+                    return;
+                }
+                try {
+                    SQLiteDatabase db = getWritableDatabase();
+                    db.beginTransaction();
+                    try {
+                        for (String key : new ArrayList<>(pendingAccess.keySet())) {
+                            Entry entry = pendingAccess.remove(key);
+                            if (entry != null && entries.get(key) == entry) {
+                                write(db, key, entry);
+                            }
+                        }
+                        db.setTransactionSuccessful();
+                    } finally {
+                        db.endTransaction();
+                    }
+                } catch (Exception e) {
+                    Log.e("BlastedCacheIndex", "Failed to update cache index", e);
+                }
+            }
+        });
+    }
+
+    private static void write(SQLiteDatabase db, String key, Entry entry) {
+        ContentValues values = new ContentValues();
+        values.put("key", key);
+        values.put("size", entry.size);
+        values.put("last_access", entry.lastAccess);
+        values.put("expires", entry.expires);
+        db.insertWithOnConflict(TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    @Nullable
+    public Entry get(String key) {
+        return entries.get(key);
+    }
+
+    // The indexed CDN variants cached for a key, by its cacheKey or by its (normalized) url.
+    // The key itself is included unless it only exists as variants. Must not run on the UI thread.
+    public List<String> expandKey(String key) {
+        load();
+        return collectKeys(key);
+    }
+
+    // Answered from the in-memory mirror only, without the database or Glide's disk cache, so it is safe on the JS thread.
+    // Entries removed by Glide's size limit still count until the next lookup through isCached() or evict().
+    public boolean isIndexed(String key) {
+        long now = System.currentTimeMillis();
+        for (String candidate : collectKeys(key)) {
+            Entry entry = entries.get(candidate);
+            if (entry != null && !entry.isExpired(now)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> collectKeys(String key) {
+        List<String> keys = new ArrayList<>();
+        addVariants(keys, variants.get(key));
+        String normalized = BlastedGlideUrl.normalizeKey(key);
+        if (!normalized.equals(key)) {
+            addVariants(keys, variants.get(normalized));
+        }
+        if (keys.isEmpty() || entries.containsKey(key)) {
+            keys.add(0, key);
+        }
+        return keys;
+    }
+
+    // True if the key or one of its variants is cached. Must not run on the UI thread.
+    public boolean isCached(String key) {
+        for (String candidate : expandKey(key)) {
+            if (isCachedExact(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Cheap check: expired entries count as not cached, otherwise the file must still be in Glide's disk cache
+    private boolean isCachedExact(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isExpired(System.currentTimeMillis())) {
+            return false;
+        }
+        DiskCache diskCache = BlastedDiskCacheFactory.getDiskCache();
+        return diskCache != null && diskCache.get(new BlastedDiskCacheFactory.DataKey(key)) != null;
+    }
+
+    // Deletes the key, or every indexed key starting with it when prefix is true. Must not run on the UI thread.
+    public int evict(String keyOrPrefix, boolean prefix) {
+        load();
+
+        List<String> keys = new ArrayList<>();
+        if (prefix) {
+            String normalized = BlastedGlideUrl.normalizeKey(keyOrPrefix);
+            for (String key : entries.keySet()) {
+                if (key.startsWith(keyOrPrefix) || key.startsWith(normalized)) {
+                    keys.add(key);
+                }
+            }
+        } else {
+            keys.addAll(expandKey(keyOrPrefix));
+        }
+
+        for (String key : keys) {
+            deleteNow(key);
+        }
+        return keys.size();
+    }
+
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+    public long getIndexedSize() {
+        long size = 0;
+        for (Entry entry : entries.values()) {
+            size += entry.size;
+        }
+        return size;
+    }
+
+    // Called after Glide's disk cache was cleared
+    public void clear() {
+        entries.clear();
+        pendingAccess.clear();
+        variants.clear();
+        BlastedExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    getWritableDatabase().delete(TABLE, null, null);
+                } catch (Exception e) {
+                    Log.e("BlastedCacheIndex", "Failed to clear cache index", e);
+                }
+            }
+        });
+    }
+
+    private void deleteNow(String key) {
+        DiskCache diskCache = BlastedDiskCacheFactory.getDiskCache();
+        if (diskCache != null) {
+            diskCache.delete(new BlastedDiskCacheFactory.DataKey(key));
+        }
+        removeEntry(key);
+        pendingAccess.remove(key);
+        try {
+            getWritableDatabase().delete(TABLE, "key = ?", new String[] { key });
+        } catch (Exception e) {
+            Log.e("BlastedCacheIndex", "Failed to delete from cache index", e);
+        }
+    }
+
+    private void putEntry(String key, Entry entry) {
+        entries.put(key, entry);
+        String base = variantBase(key);
+        if (base != null) {
+            Set<String> keys = variants.get(base);
+            if (keys == null) {
+                keys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+                Set<String> existing = variants.putIfAbsent(base, keys);
+                if (existing != null) {
+                    keys = existing;
+                }
+            }
+            keys.add(key);
+        }
+    }
+
+    private void removeEntry(String key) {
+        entries.remove(key);
+        String base = variantBase(key);
+        Set<String> keys = base != null ? variants.get(base) : null;
+        if (keys != null) {
+            keys.remove(key);
+        }
+    }
+
+    @Nullable
+    static String variantBase(String key) {
+        int separator = key.lastIndexOf(BlastedUrlRewriter.VARIANT_SEPARATOR);
+        return separator > 0 ? key.substring(0, separator) : null;
+    }
+
+    private static void addVariants(List<String> keys, @Nullable Set<String> found) {
+        if (found != null) {
+            keys.addAll(found);
+        }
+    }
+
+    // Entries touched before the mirror was loaded are newer than the database rows, keep them
+    private synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        Cursor cursor = null;
+        try {
+            cursor = getReadableDatabase().query(TABLE, new String[] { "key", "size", "last_access", "expires" }, null, null, null, null, null);
+            while (cursor.moveToNext()) {
+                String key = cursor.getString(0);
+                if (!entries.containsKey(key)) {
+                    putEntry(key, new Entry(cursor.getLong(1), cursor.getLong(2), cursor.getLong(3)));
+                }
+            }
+        } catch (Exception e) {
+            Log.e("BlastedCacheIndex", "Failed to load cache index", e);
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+        loaded = true;
+    }
+}
@@ -0,0 +1,65 @@
+package com.xerdnu.blastedimage;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.Glide;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Disk cache clears run on the maintenance executor. Requests that arrive while a clear is queued join it and
+// are completed together, so repeated calls from JS cost one clear instead of one thread each.
+// A request that arrives while a clear is already running queues a new one, entries written meanwhile must go too.
+public final class BlastedCacheMaintenance {
+
+    public interface Callback {
+        void onComplete(@Nullable Exception error);
+    }
+
+    private static final List<Callback> waiting = new ArrayList<>();
+    private static boolean queued = false;
+
+    private BlastedCacheMaintenance() {
+    }
+
+    public static void clearDiskCache(final Context context, Callback callback) {
+        synchronized (BlastedCacheMaintenance.class) {
+            waiting.add(callback);
+            if (queued) {
+                return;
+            }
+            queued = true;
+        }
+
+        BlastedExecutors.maintenance().execute(new Runnable() {
+            @Override
+            public void run() {
+                List<Callback> callbacks;
+                synchronized (BlastedCacheMaintenance.class) {
+                    callbacks = new ArrayList<>(waiting);
+                    waiting.clear();
+                    queued = false;
+                }
+
+                Exception error = null;
+                try {
+                    Glide.get(context).clearDiskCache();
+                    BlastedCacheIndex.getInstance(context).clear();
+                } catch (Exception e) {
+                    Log.e("BlastedCacheMaintenance", "Error clearing Glide disk cache", e);
+                    error = e;
+                }
+
+                if (callbacks.size() > 1) {
+                    Log.d("BlastedCacheMaintenance", callbacks.size() + " disk cache clears coalesced");
+                }
+                for (Callback waiter : callbacks) {
+                    waiter.onComplete(error);
+                }
+            }
+        });
+    }
+}
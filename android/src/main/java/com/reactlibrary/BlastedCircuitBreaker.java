@@ -0,0 +1,114 @@
+package com.xerdnu.blastedimage;
+
+import com.facebook.react.bridge.ReadableMap;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+// Per host circuit breaker for image downloads. After `threshold` transient failures in a row the host is open and
+// requests fail immediately for the cooldown. Then one request is let through: success closes the circuit,
+// failure opens it again for twice the cooldown (up to MAX_COOLDOWN_MS).
+public final class BlastedCircuitBreaker {
+
+    public static final int DEFAULT_THRESHOLD = 5;
+    public static final long DEFAULT_COOLDOWN_MS = 30000;
+    public static final long MAX_COOLDOWN_MS = 5 * 60 * 1000;
+
+    public static final class OpenException extends IOException {
+        OpenException(String host) {
+            super("Host " + host + " is failing, request skipped");
+        }
+    }
+
+    // Elapsed time in ms, replaced in tests to move past the cooldown without waiting
+    interface Clock {
+        long now();
+    }
+
+    private static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override
+        public long now() {
+            return BlastedStats.now();
+        }
+    };
+
+    private static final class HostState {
+        int failures = 0;
+        long openUntil = 0;
+        long cooldown = 0;
+        boolean probing = false;
+    }
+
+    private static final Map<String, HostState> hosts = new HashMap<>();
+    private static int threshold = DEFAULT_THRESHOLD;
+    private static long cooldownMs = DEFAULT_COOLDOWN_MS;
+    private static Clock clock = SYSTEM_CLOCK;
+
+    private BlastedCircuitBreaker() {
+    }
+
+    public static synchronized void configure(ReadableMap options) {
+        if (options.hasKey("circuitBreakerThreshold")) {
+            threshold = Math.max(0, options.getInt("circuitBreakerThreshold")); // 0 = disabled
+        }
+        if (options.hasKey("circuitBreakerCooldown")) {
+            cooldownMs = Math.max(1000, (long) options.getDouble("circuitBreakerCooldown"));
+        }
+    }
+
+    static synchronized void setClock(Clock newClock) {
+        clock = newClock != null ? newClock : SYSTEM_CLOCK;
+    }
+
+    // Forgets all hosts and restores the defaults, for tests
+    static synchronized void reset() {
+        hosts.clear();
+        threshold = DEFAULT_THRESHOLD;
+        cooldownMs = DEFAULT_COOLDOWN_MS;
+        clock = SYSTEM_CLOCK;
+    }
+
+    // Throws if the host is open. While half open only the first caller gets through as probe.
+    public static synchronized void checkRequest(String host) throws OpenException {
+        HostState state = hosts.get(host);
+        if (threshold == 0 || state == null || state.openUntil == 0) {
+            return;
+        }
+        if (clock.now() < state.openUntil || state.probing) {
+            BlastedStats.circuitRejected();
+            throw new OpenException(host);
+        }
+        state.probing = true;
+    }
+
+    public static synchronized void recordSuccess(String host) {
+        hosts.remove(host);
+    }
+
+    // A cancelled probe says nothing about the host, let the next request probe it
+    public static synchronized void recordCancelled(String host) {
+        HostState state = hosts.get(host);
+        if (state != null) {
+            state.probing = false;
+        }
+    }
+
+    // Only transient failures count, a 404 means the host is up
+    public static synchronized void recordFailure(String host) {
+        if (threshold == 0) {
+            return;
+        }
+        HostState state = hosts.get(host);
+        if (state == null) {
+            state = new HostState();
+            hosts.put(host, state);
+        }
+        state.failures++;
+        if (state.probing || (state.openUntil == 0 && state.failures >= threshold)) {
+            state.cooldown = state.cooldown == 0 ? cooldownMs : Math.min(MAX_COOLDOWN_MS, state.cooldown * 2);
+            state.openUntil = clock.now() + state.cooldown;
+            state.probing = false;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.xerdnu.blastedimage;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+// Glide model for data:image/ URIs. Keeps the original string and a 64 bit content hash computed once,
+// so memory cache lookups compare the hash first and the payload is never copied or logged.
+public final class BlastedDataUri {
+
+    private final String uri;
+    private final String mimeType;
+    private final boolean base64;
+    private final int payloadStart;
+    private final long hash;
+
+    private BlastedDataUri(String uri, String mimeType, boolean base64, int payloadStart) {
+        this.uri = uri;
+        this.mimeType = mimeType;
+        this.base64 = base64;
+        this.payloadStart = payloadStart;
+        this.hash = hash(uri, payloadStart);
+    }
+
+    // data:[<mime>][;base64],<payload>, null if the uri has no payload
+    @Nullable
+    public static BlastedDataUri parse(@Nullable String uri) {
+        if (uri == null || !uri.startsWith("data:")) {
+            return null;
+        }
+        int comma = uri.indexOf(',');
+        if (comma < 0) {
+            return null;
+        }
+        String header = uri.substring(5, comma);
+        boolean base64 = header.endsWith(";base64");
+        int mimeEnd = header.indexOf(';');
+        String mimeType = mimeEnd >= 0 ? header.substring(0, mimeEnd) : header;
+        return new BlastedDataUri(uri, mimeType, base64, comma + 1);
+    }
+
+    String getUri() {
+        return uri;
+    }
+
+    boolean isBase64() {
+        return base64;
+    }
+
+    int getPayloadStart() {
+        return payloadStart;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    // Stable across app starts, used as disk cache key for the decoded resource
+    public String getCacheKey() {
+        return "data:" + mimeType + ":" + Long.toHexString(hash) + ":" + (uri.length() - payloadStart);
+    }
+
+    // FNV-1a over the payload chars, cheap enough to run on every bind
+    private static long hash(String uri, int start) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start, length = uri.length(); i < length; i++) {
+            hash ^= uri.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BlastedDataUri)) {
+            return false;
+        }
+        BlastedDataUri other = (BlastedDataUri) o;
+        return hash == other.hash && uri.equals(other.uri);
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    // Shows up in logs, events and stats, never include the payload
+    @NonNull
+    @Override
+    public String toString() {
+        return getCacheKey();
+    }
+}
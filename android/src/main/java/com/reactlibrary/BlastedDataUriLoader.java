@@ -0,0 +1,197 @@
+package com.xerdnu.blastedimage;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.signature.ObjectKey;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+// Decodes data URIs straight from the string into a byte array from Glide's array pool, which is returned once
+// the image was decoded. Glide's DataUrlLoader copies the string into bytes and allocates a new array for every load.
+public class BlastedDataUriLoader implements ModelLoader<BlastedDataUri, ByteBuffer> {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ArrayPool arrayPool;
+
+    BlastedDataUriLoader(ArrayPool arrayPool) {
+        this.arrayPool = arrayPool;
+    }
+
+    @Override
+    public LoadData<ByteBuffer> buildLoadData(@NonNull BlastedDataUri model, int width, int height, @NonNull Options options) {
+        return new LoadData<>(new ObjectKey(model.getCacheKey()), new Fetcher(model, arrayPool));
+    }
+
+    @Override
+    public boolean handles(@NonNull BlastedDataUri model) {
+        return true;
+    }
+
+    private static final class Fetcher implements DataFetcher<ByteBuffer> {
+        private final BlastedDataUri model;
+        private final ArrayPool arrayPool;
+        private byte[] buffer;
+
+        Fetcher(BlastedDataUri model, ArrayPool arrayPool) {
+            this.model = model;
+            this.arrayPool = arrayPool;
+        }
+
+        @Override
+        public void loadData(@NonNull Priority priority, @NonNull DataCallback<? super ByteBuffer> callback) {
+            try {
+                if (model.isBase64()) {
+                    String uri = model.getUri();
+                    int start = model.getPayloadStart();
+                    buffer = arrayPool.get((uri.length() - start) * 3 / 4 + 3, byte[].class);
+                    int length = decodeBase64(uri, start, buffer);
+
+                    // Animated drawables keep reading frames from the buffer after decode, they get their own copy
+                    if (isAnimatable(ImageFormatSniffer.detect(buffer, Math.min(length, ImageFormatSniffer.HEADER_SIZE)))) {
+                        byte[] owned = Arrays.copyOf(buffer, length);
+                        arrayPool.put(buffer);
+                        buffer = null;
+                        callback.onDataReady(ByteBuffer.wrap(owned));
+                        return;
+                    }
+                    callback.onDataReady(ByteBuffer.wrap(buffer, 0, length));
+                } else {
+                    // Percent encoded payloads are small (mostly SVG), no need to pool them
+                    callback.onDataReady(ByteBuffer.wrap(decodePercent(model.getUri(), model.getPayloadStart())));
+                }
+            } catch (IllegalArgumentException e) {
+                callback.onLoadFailed(e);
+            }
+        }
+
+        @Override
+        public void cleanup() {
+            if (buffer != null) {
+                arrayPool.put(buffer);
+                buffer = null;
+            }
+        }
+
+        @Override
+        public void cancel() {
+            // Decoding is synchronous, nothing to cancel
+        }
+
+        @NonNull
+        @Override
+        public Class<ByteBuffer> getDataClass() {
+            return ByteBuffer.class;
+        }
+
+        @NonNull
+        @Override
+        public DataSource getDataSource() {
+            return DataSource.LOCAL;
+        }
+    }
+
+    private static boolean isAnimatable(ImageFormatSniffer.Format format) {
+        return format == ImageFormatSniffer.Format.GIF
+            || format == ImageFormatSniffer.Format.WEBP
+            || format == ImageFormatSniffer.Format.AVIF
+            || format == ImageFormatSniffer.Format.HEIF;
+    }
+
+    // Standard and url safe alphabets, whitespace is skipped, decoding stops at padding
+    static int decodeBase64(String source, int start, byte[] out) {
+        int bits = 0;
+        int bitCount = 0;
+        int length = 0;
+        for (int i = start, end = source.length(); i < end; i++) {
+            char c = source.charAt(i);
+            int value;
+            if (c >= 'A' && c <= 'Z') {
+                value = c - 'A';
+            } else if (c >= 'a' && c <= 'z') {
+                value = c - 'a' + 26;
+            } else if (c >= '0' && c <= '9') {
+                value = c - '0' + 52;
+            } else if (c == '+' || c == '-') {
+                value = 62;
+            } else if (c == '/' || c == '_') {
+                value = 63;
+            } else if (c == '=') {
+                break;
+            } else if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                continue;
+            } else {
+                throw new IllegalArgumentException("Invalid base64 character in data URI at " + (i - start));
+            }
+
+            bits = (bits << 6) | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                out[length++] = (byte) (bits >> bitCount);
+            }
+        }
+        return length;
+    }
+
+    // Escapes are decoded to the byte they encode, other characters are written as UTF-8
+    static byte[] decodePercent(String source, int start) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(source.length() - start);
+        int end = source.length();
+        int i = start;
+        while (i < end) {
+            char c = source.charAt(i);
+            if (c == '%') {
+                int high = i + 2 < end ? Character.digit(source.charAt(i + 1), 16) : -1;
+                int low = i + 2 < end ? Character.digit(source.charAt(i + 2), 16) : -1;
+                if (high < 0 || low < 0) {
+                    throw new IllegalArgumentException("Invalid percent escape in data URI at " + (i - start));
+                }
+                out.write((high << 4) | low);
+                i += 3;
+            } else if (c < 0x80) {
+                out.write(c);
+                i++;
+            } else {
+                int runEnd = i + 1;
+                while (runEnd < end && source.charAt(runEnd) >= 0x80) {
+                    runEnd++;
+                }
+                byte[] bytes = source.substring(i, runEnd).getBytes(UTF_8);
+                out.write(bytes, 0, bytes.length);
+                i = runEnd;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static class Factory implements ModelLoaderFactory<BlastedDataUri, ByteBuffer> {
+        private final ArrayPool arrayPool;
+
+        public Factory(ArrayPool arrayPool) {
+            this.arrayPool = arrayPool;
+        }
+
+        @NonNull
+        @Override
+        public ModelLoader<BlastedDataUri, ByteBuffer> build(@NonNull MultiModelLoaderFactory multiFactory) {
+            return new BlastedDataUriLoader(arrayPool);
+        }
+
+        @Override
+        public void teardown() {
+            // Do nothing
+        }
+    }
+}
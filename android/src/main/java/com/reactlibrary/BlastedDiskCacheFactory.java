@@ -0,0 +1,69 @@
+package com.xerdnu.blastedimage;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.cache.DiskCache;
+
+import java.security.MessageDigest;
+
+// Wraps the disk cache factory given to Glide and keeps the cache it builds so single entries can be looked up or deleted.
+public class BlastedDiskCacheFactory implements DiskCache.Factory {
+
+    private static BlastedDiskCacheFactory current;
+
+    private final DiskCache.Factory delegate;
+    private DiskCache diskCache;
+
+    public BlastedDiskCacheFactory(DiskCache.Factory delegate) {
+        this.delegate = delegate;
+        synchronized (BlastedDiskCacheFactory.class) {
+            current = this;
+        }
+    }
+
+    @Nullable
+    @Override
+    public synchronized DiskCache build() {
+        if (diskCache == null) {
+            diskCache = delegate.build();
+        }
+        return diskCache;
+    }
+
+    // The disk cache Glide is using, built on first call if Glide didn't need it yet. Null before Glide is initialized.
+    @Nullable
+    public static DiskCache getDiskCache() {
+        BlastedDiskCacheFactory factory;
+        synchronized (BlastedDiskCacheFactory.class) {
+            factory = current;
+        }
+        return factory != null ? factory.build() : null;
+    }
+
+    // Same digest as Glide's DataCacheKey for a GlideUrl with the default (empty) signature,
+    // which is how the original download of a remote url is stored.
+    public static final class DataKey implements Key {
+        private final String cacheKey;
+
+        public DataKey(String cacheKey) {
+            this.cacheKey = cacheKey;
+        }
+
+        @Override
+        public void updateDiskCacheKey(@NonNull MessageDigest messageDigest) {
+            messageDigest.update(cacheKey.getBytes(CHARSET));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof DataKey && cacheKey.equals(((DataKey) o).cacheKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return cacheKey.hashCode();
+        }
+    }
+}
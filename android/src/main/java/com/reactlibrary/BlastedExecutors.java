@@ -0,0 +1,76 @@
+package com.xerdnu.blastedimage;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Shared executors for work that must not run on the UI thread. Threads are created on demand and die when idle.
+public final class BlastedExecutors {
+
+    private static final ExecutorService BACKGROUND = newExecutor("blasted-background", 1, Thread.MIN_PRIORITY);
+    private static final ExecutorService RESOLVER = newExecutor("blasted-resolver", 2, Thread.NORM_PRIORITY);
+    private static final ExecutorService MAINTENANCE = newExecutor("blasted-maintenance", 1, Thread.MIN_PRIORITY);
+    private static final ExecutorService CACHE_QUERY = newExecutor("blasted-cache-query", 1, Thread.NORM_PRIORITY);
+    private static final ScheduledExecutorService SCHEDULER = newScheduler("blasted-scheduler");
+
+    private BlastedExecutors() {
+    }
+
+    // Single low priority thread for one-off jobs such as building the hybrid assets index
+    public static ExecutorService background() {
+        return BACKGROUND;
+    }
+
+    // Resolves view sources (headers, hybrid assets, request options) off the UI thread
+    public static ExecutorService resolver() {
+        return RESOLVER;
+    }
+
+    // Single thread for operations on Glide's disk cache (clear, evict, prune) so they never race each other
+    public static ExecutorService maintenance() {
+        return MAINTENANCE;
+    }
+
+    // Cache lookups requested from JS (isCached, getCacheSize), kept off the resolver so they never delay view binding
+    public static ExecutorService cacheQuery() {
+        return CACHE_QUERY;
+    }
+
+    // Delays short tasks such as download retries, the delayed task itself must not block
+    public static ScheduledExecutorService scheduler() {
+        return SCHEDULER;
+    }
+
+    private static ScheduledExecutorService newScheduler(final String name) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                return new Thread(runnable, name);
+            }
+        });
+        executor.setKeepAliveTime(30, TimeUnit.SECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    static ExecutorService newExecutor(final String name, int threads, final int priority) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger(1);
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, name + "-" + count.getAndIncrement());
+                    thread.setPriority(priority);
+                    return thread;
+                }
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -1,8 +1,15 @@
 package com.xerdnu.blastedimage;
 
+import android.net.Uri;
+
 import com.bumptech.glide.load.model.GlideUrl;
 import com.bumptech.glide.load.model.Headers;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
 public class BlastedGlideUrl extends GlideUrl {
 
     private final String cacheKey;
@@ -21,4 +28,27 @@ public class BlastedGlideUrl extends GlideUrl {
     public String getCacheKey() {
         return (cacheKey != null && !cacheKey.isEmpty()) ? cacheKey : super.getCacheKey();
     }
+
+    // Same key for urls that only differ in the case of scheme and host, the order of query parameters or the fragment
+    public static String normalizeKey(String url) {
+        Uri uri = Uri.parse(url);
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            return url;
+        }
+
+        Uri.Builder builder = uri.buildUpon()
+            .scheme(uri.getScheme().toLowerCase(Locale.ROOT))
+            .encodedAuthority(uri.getEncodedAuthority().toLowerCase(Locale.ROOT))
+            .clearQuery()
+            .fragment(null);
+
+        List<String> names = new ArrayList<>(uri.getQueryParameterNames());
+        Collections.sort(names);
+        for (String name : names) {
+            for (String value : uri.getQueryParameters(name)) {
+                builder.appendQueryParameter(name, value);
+            }
+        }
+        return builder.build().toString();
+    }
 }
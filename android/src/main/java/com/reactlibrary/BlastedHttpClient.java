@@ -0,0 +1,74 @@
+package com.xerdnu.blastedimage;
+
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.modules.network.OkHttpClientProvider;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+// OkHttp client used for image downloads. It shares the connection pool of React Native's client (HTTP/2 connections are
+// multiplexed with the app's own requests) but has its own dispatcher so image limits don't throttle fetch() calls.
+public final class BlastedHttpClient {
+
+    public static final int DEFAULT_MAX_REQUESTS = 64;
+    public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 8;
+
+    private static int maxRequests = DEFAULT_MAX_REQUESTS;
+    private static int maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+    private static int maxIdleConnections = 0; // 0 = share React Native's pool
+    private static long keepAliveSeconds = 300;
+    private static boolean coalesceRequests = true;
+
+    private static OkHttpClient client;
+
+    private BlastedHttpClient() {
+    }
+
+    // Options from BlastedImage.configure(), applies to the client created after this call
+    public static synchronized void configure(ReadableMap options) {
+        if (options.hasKey("maxRequests")) {
+            maxRequests = Math.max(1, options.getInt("maxRequests"));
+        }
+        if (options.hasKey("maxRequestsPerHost")) {
+            maxRequestsPerHost = Math.max(1, options.getInt("maxRequestsPerHost"));
+        }
+        if (options.hasKey("maxIdleConnections")) {
+            maxIdleConnections = Math.max(0, options.getInt("maxIdleConnections"));
+        }
+        if (options.hasKey("keepAliveDuration")) {
+            keepAliveSeconds = Math.max(1, (long) options.getDouble("keepAliveDuration"));
+        }
+        if (options.hasKey("coalesceRequests")) {
+            coalesceRequests = options.getBoolean("coalesceRequests");
+        }
+        client = null;
+    }
+
+    public static synchronized boolean isCoalescingEnabled() {
+        return coalesceRequests;
+    }
+
+    public static synchronized OkHttpClient get() {
+        if (client == null) {
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(maxRequests);
+            dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+            OkHttpClient.Builder builder = OkHttpClientProvider.getOkHttpClient().newBuilder()
+                .dispatcher(dispatcher)
+                .connectTimeout(15, TimeUnit.SECONDS)
+                .readTimeout(30, TimeUnit.SECONDS)
+                .retryOnConnectionFailure(true);
+
+            if (maxIdleConnections > 0) {
+                builder.connectionPool(new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS));
+            }
+
+            client = builder.build();
+        }
+        return client;
+    }
+}
@@ -0,0 +1,370 @@
+package com.xerdnu.blastedimage;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.HttpException;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.model.GlideUrl;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+// Fetches a GlideUrl with OkHttp. Fetchers for the same url and headers that start while a download is in flight
+// (e.g. the same image at two sizes) attach to it. The body is streamed to a single fetcher, it is only buffered
+// to share it when another fetcher joined and the length is known to be small enough.
+// Transient failures are retried with backoff (BlastedRetryPolicy) and failing hosts are skipped (BlastedCircuitBreaker).
+// Fetch time and downloaded bytes are reported to BlastedStats once per network call.
+public class BlastedHttpFetcher implements DataFetcher<InputStream> {
+
+    // Bodies above this size are not buffered for coalescing, the first fetcher streams it and the others download separately
+    private static final long MAX_COALESCED_BODY = 8 * 1024 * 1024;
+
+    private static final Map<String, InFlight> inFlight = new HashMap<>();
+
+    private final GlideUrl url;
+    private InFlight attached;
+    private DataCallback<? super InputStream> callback;
+    private ResponseBody streamedBody;
+    private volatile boolean cancelled = false;
+    private volatile Call call; // Only for downloads not shared with other fetchers
+
+    public BlastedHttpFetcher(GlideUrl url) {
+        this.url = url;
+    }
+
+    @Override
+    public void loadData(@NonNull Priority priority, @NonNull DataCallback<? super InputStream> callback) {
+        this.callback = callback;
+
+        if (!BlastedHttpClient.isCoalescingEnabled()) {
+            startCall(null, 0);
+            return;
+        }
+
+        String key = url.toStringUrl() + "|" + url.getHeaders();
+        synchronized (inFlight) {
+            InFlight existing = inFlight.get(key);
+            if (existing != null && existing.join(this)) {
+                attached = existing;
+                BlastedStats.requestCoalesced();
+                return;
+            }
+            attached = new InFlight(key);
+            attached.join(this);
+            inFlight.put(key, attached);
+        }
+        startCall(attached, 0);
+    }
+
+    // attempt counts the retries so far, see BlastedRetryPolicy
+    private void startCall(final InFlight group, final int attempt) {
+        final long startTime = BlastedStats.now();
+        HttpUrl httpUrl = HttpUrl.parse(url.toStringUrl());
+        final String host = httpUrl != null ? httpUrl.host() : null;
+
+        if (host != null) {
+            try {
+                BlastedCircuitBreaker.checkRequest(host);
+            } catch (BlastedCircuitBreaker.OpenException e) {
+                fail(group, e);
+                return;
+            }
+        }
+
+        Request.Builder request = new Request.Builder().url(url.toStringUrl());
+        for (Map.Entry<String, String> header : url.getHeaders().entrySet()) {
+            request.addHeader(header.getKey(), header.getValue());
+        }
+
+        Call newCall = BlastedHttpClient.get().newCall(request.build());
+        if (group != null) {
+            group.call = newCall;
+        } else {
+            call = newCall;
+        }
+        // A retry can start after every fetcher left, the call it was cancelling has already finished
+        if (group != null ? group.isAbandoned() : cancelled) {
+            newCall.cancel();
+        }
+
+        newCall.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                if (call.isCanceled()) {
+                    if (host != null) {
+                        BlastedCircuitBreaker.recordCancelled(host);
+                    }
+                    fail(group, e);
+                    return;
+                }
+                onTransientFailure(group, attempt, host, e);
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                ResponseBody body = response.body();
+                if (!response.isSuccessful() || body == null) {
+                    response.close();
+                    Exception e = new HttpException(response.message(), response.code());
+                    if (BlastedRetryPolicy.isRetryableStatus(response.code())) {
+                        onTransientFailure(group, attempt, host, e);
+                    } else {
+                        if (host != null) {
+                            BlastedCircuitBreaker.recordSuccess(host); // The host answered, the image is the problem
+                        }
+                        fail(group, e);
+                    }
+                    return;
+                }
+
+                if (host != null) {
+                    BlastedCircuitBreaker.recordSuccess(host);
+                }
+
+                if (group == null) {
+                    streamedBody = body;
+                    callback.onDataReady(new CountingInputStream(body.byteStream(), url.getCacheKey(), startTime));
+                    return;
+                }
+
+                if (!group.shouldBuffer(body.contentLength())) {
+                    group.stream(body, startTime);
+                    return;
+                }
+
+                try {
+                    byte[] bytes = body.bytes();
+                    BlastedStats.recordFetch(url.getCacheKey(), BlastedStats.now() - startTime, bytes.length);
+                    group.complete(bytes);
+                } catch (IOException e) {
+                    group.fail(e);
+                } finally {
+                    response.close();
+                }
+            }
+        });
+    }
+
+    // Retry after a backoff delay unless the retries are used up or nobody waits for the result anymore
+    private void onTransientFailure(final InFlight group, final int attempt, String host, Exception e) {
+        if (host != null) {
+            BlastedCircuitBreaker.recordFailure(host);
+        }
+
+        boolean abandoned = group != null ? group.isAbandoned() : cancelled;
+        if (abandoned || attempt >= BlastedRetryPolicy.getRetries()) {
+            fail(group, e);
+            return;
+        }
+
+        BlastedStats.requestRetried();
+        BlastedExecutors.scheduler().schedule(new Runnable() {
+            @Override
+            public void run() {
+                boolean abandoned = group != null ? group.isAbandoned() : cancelled;
+                if (!abandoned) {
+                    startCall(group, attempt + 1);
+                }
+            }
+        }, BlastedRetryPolicy.delayMs(attempt + 1), TimeUnit.MILLISECONDS);
+    }
+
+    private void fail(InFlight group, Exception e) {
+        if (group != null) {
+            group.fail(e);
+        } else {
+            callback.onLoadFailed(e);
+        }
+    }
+
+    @Override
+    public void cleanup() {
+        if (streamedBody != null) {
+            streamedBody.close();
+        }
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        InFlight group = attached;
+        if (group != null) {
+            group.leave(this);
+        } else if (call != null) {
+            call.cancel();
+        }
+    }
+
+    @NonNull
+    @Override
+    public Class<InputStream> getDataClass() {
+        return InputStream.class;
+    }
+
+    @NonNull
+    @Override
+    public DataSource getDataSource() {
+        return DataSource.REMOTE;
+    }
+
+    // One download shared by all fetchers that joined it before it finished
+    private static final class InFlight {
+        private final String key;
+        private final List<BlastedHttpFetcher> fetchers = new ArrayList<>();
+        private boolean done = false;
+        Call call;
+
+        InFlight(String key) {
+            this.key = key;
+        }
+
+        // Called with the inFlight lock held
+        boolean join(BlastedHttpFetcher fetcher) {
+            if (done) {
+                return false;
+            }
+            fetchers.add(fetcher);
+            return true;
+        }
+
+        // The call is only cancelled when every fetcher waiting for it was cancelled
+        void leave(BlastedHttpFetcher fetcher) {
+            Call toCancel = null;
+            synchronized (inFlight) {
+                fetchers.remove(fetcher);
+                if (fetchers.isEmpty() && !done) {
+                    done = true;
+                    inFlight.remove(key);
+                    toCancel = call;
+                }
+            }
+            if (toCancel != null) {
+                toCancel.cancel();
+            }
+        }
+
+        // Buffering only pays off when another fetcher waits for the same body, and is only safe with a known, bounded length
+        boolean shouldBuffer(long contentLength) {
+            synchronized (inFlight) {
+                return fetchers.size() > 1 && contentLength >= 0 && contentLength <= MAX_COALESCED_BODY;
+            }
+        }
+
+        boolean isAbandoned() {
+            synchronized (inFlight) {
+                return done;
+            }
+        }
+
+        private List<BlastedHttpFetcher> finish() {
+            synchronized (inFlight) {
+                done = true;
+                inFlight.remove(key);
+                return new ArrayList<>(fetchers);
+            }
+        }
+
+        void complete(byte[] bytes) {
+            for (BlastedHttpFetcher fetcher : finish()) {
+                fetcher.callback.onDataReady(new ByteArrayInputStream(bytes));
+            }
+        }
+
+        void fail(Exception e) {
+            for (BlastedHttpFetcher fetcher : finish()) {
+                fetcher.callback.onLoadFailed(e);
+            }
+        }
+
+        // Not buffered: the first fetcher still waiting streams it, everyone else starts its own download
+        void stream(ResponseBody body, long startTime) {
+            List<BlastedHttpFetcher> waiting = finish();
+            if (waiting.isEmpty()) {
+                body.close();
+                return;
+            }
+            for (int i = 0; i < waiting.size(); i++) {
+                BlastedHttpFetcher fetcher = waiting.get(i);
+                fetcher.attached = null;
+                if (i == 0) {
+                    fetcher.streamedBody = body;
+                    fetcher.callback.onDataReady(new CountingInputStream(body.byteStream(), fetcher.url.getCacheKey(), startTime));
+                } else {
+                    fetcher.startCall(null, 0);
+                }
+            }
+        }
+    }
+
+    // Reports the bytes read from a streamed body when it was read to the end or closed
+    private static final class CountingInputStream extends FilterInputStream {
+        private final String cacheKey;
+        private final long startTime;
+        private long bytes = 0;
+        private boolean reported = false;
+
+        CountingInputStream(InputStream in, String cacheKey, long startTime) {
+            super(in);
+            this.cacheKey = cacheKey;
+            this.startTime = startTime;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                bytes++;
+            } else {
+                report();
+            }
+            return value;
+        }
+
+        @Override
+        public int read(@NonNull byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                bytes += count;
+            } else if (count < 0) {
+                report();
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            bytes += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            report();
+            super.close();
+        }
+
+        private void report() {
+            if (!reported) {
+                reported = true;
+                BlastedStats.recordFetch(cacheKey, BlastedStats.now() - startTime, bytes);
+            }
+        }
+    }
+}
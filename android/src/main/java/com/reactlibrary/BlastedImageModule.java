@@ -3,44 +3,54 @@ package com.xerdnu.blastedimage;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
-import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactContext;
+import com.facebook.react.bridge.UiThreadUtil;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.modules.core.DeviceEventManagerModule;
 
 import com.facebook.react.module.annotations.ReactModule;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DataSource;
 import com.bumptech.glide.request.RequestOptions;
-import com.bumptech.glide.load.model.GlideUrl;
-import com.bumptech.glide.load.model.LazyHeaders;
 import com.bumptech.glide.load.engine.GlideException;
 import com.bumptech.glide.request.RequestListener;
 import com.bumptech.glide.request.target.Target;
-import com.bumptech.glide.GlideBuilder;
-import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
-import com.bumptech.glide.load.engine.cache.LruResourceCache;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.io.File;
 
-import android.content.res.AssetManager;
+import android.content.Context;
 import android.graphics.drawable.Drawable;
 import android.util.Log;
-import android.net.Uri;
 
 @ReactModule(name = BlastedImageModule.NAME)
-public class BlastedImageModule extends ReactContextBaseJavaModule {
+// BlastedImageSpec is the TurboModule spec on the New Architecture and a bridge module on the old one (src/newarch, src/oldarch)
+public class BlastedImageModule extends BlastedImageSpec implements LifecycleEventListener {
     public static final String NAME = "BlastedImage";
     private final ReactApplicationContext mReactContext;
 
-    private static boolean isGlideInitialized = false;
+    private static volatile boolean isGlideInitialized = false;
+    private static final BlastedCacheConfig cacheConfig = new BlastedCacheConfig();
+    private static BlastedMemoryTrimmer memoryTrimmer;
+
+    private final BlastedPreloadScheduler preloadScheduler = new BlastedPreloadScheduler();
+    private final BlastedUrlResolver urlResolver;
+    private final BlastedScrollController scrollController;
 
     @Override
     @NonNull
@@ -54,109 +64,167 @@ public class BlastedImageModule extends ReactContextBaseJavaModule {
     }
 
     @ReactMethod
-    public void removeListeners(Integer count) {
+    public void removeListeners(double count) {
         // Do nothing
     }
 
     public BlastedImageModule(ReactApplicationContext reactContext) {
         super(reactContext);
         this.mReactContext = reactContext;
-
-        if (!isGlideInitialized) {
-            Glide.init(reactContext, new GlideBuilder()
-                .setDiskCache(new InternalCacheDiskCacheFactory(reactContext, 1024 * 1024 * 1024)) //1gb disk cache
-                .setMemoryCache(new LruResourceCache(256 * 1024 * 1024)) // 256mb memory cache
-            );
-            isGlideInitialized = true;
-        }        
+        this.urlResolver = BlastedUrlResolver.getInstance(reactContext);
+        this.scrollController = new BlastedScrollController(reactContext);
     }
 
-    private void sendEvent(ReactContext reactContext, String eventName, String message) {
-        WritableMap params = Arguments.createMap();
-        params.putString("message", "["+NAME+"] "+message);
-        reactContext
-            .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
-            .emit(eventName, params);
+    @Override
+    public void initialize() {
+        super.initialize();
+        mReactContext.addLifecycleEventListener(this);
     }
 
-    public String extractImagePathFromUrl(String imageUrl, String cloudUrl) {
-        String imagePath = imageUrl.replace(cloudUrl, "");
-        imagePath = imagePath.split("\\?alt=media")[0];
-
-        imagePath = imagePath.replace("%2F", "/");
+    @Override
+    public void invalidate() {
+        mReactContext.removeLifecycleEventListener(this);
+        UiThreadUtil.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                scrollController.reset();
+            }
+        });
+        super.invalidate();
+    }
 
-        return "blasted-image/" + imagePath;
-    }    
+    // Glide is initialized on first use so BlastedImage.configure() can set the cache sizes before
+    public static void ensureGlideInitialized(Context context) {
+        if (isGlideInitialized) {
+            return;
+        }
+        synchronized (BlastedImageModule.class) {
+            if (isGlideInitialized) {
+                return;
+            }
+            Context appContext = context.getApplicationContext();
+            Glide.init(appContext, cacheConfig.createGlideBuilder(appContext));
+            final BlastedMemoryTrimmer trimmer = new BlastedMemoryTrimmer(appContext, cacheConfig.getMemoryCategory());
+            memoryTrimmer = trimmer;
+            appContext.registerComponentCallbacks(trimmer);
+            UiThreadUtil.runOnUiThread(new Runnable() {
+                @Override
+                public void run() {
+                    trimmer.apply(); // The category set with configure() before this
+                }
+            });
+            isGlideInitialized = true;
 
-    public boolean doesFileExistInAssets(String filePath) {
-        AssetManager assetManager = mReactContext.getAssets();
-        try {
-            assetManager.open(filePath);
-            return true;
-        } catch (Exception e) {
-            return false;
+            BlastedCacheIndex cacheIndex = BlastedCacheIndex.getInstance(appContext);
+            cacheIndex.setDefaultTtl(cacheConfig.getCacheTtl());
+            cacheIndex.prune();
         }
     }
 
-    public Object prepareGlideUrl(String imageUrl, boolean hybridAssets, String cloudUrl, boolean showLog, @Nullable ReadableMap headers, @Nullable String cacheKey) throws Exception {
-        String imagePath = "";
-        Object glideUrl; 
-        boolean fileExistsInAssets = false;
-
-        // Check if it's a base64 data URI
-        if (imageUrl != null && imageUrl.startsWith("data:image/")) {
-            if (showLog) sendEvent(getReactApplicationContext(), "BlastedEventLog", "Base64 data URI detected");
-            glideUrl = imageUrl; // Glide handles data URIs natively
-            return glideUrl;
+    @Override
+    public void onHostResume() {
+        if (memoryTrimmer != null) {
+            memoryTrimmer.restore();
         }
-
-        if (hybridAssets){
-            imagePath = extractImagePathFromUrl(imageUrl, cloudUrl);
-            fileExistsInAssets = doesFileExistInAssets(imagePath);
+        if (isGlideInitialized) {
+            BlastedCacheIndex.getInstance(mReactContext).prune();
         }
+    }
 
-        if (fileExistsInAssets && hybridAssets) {
-            if (showLog) sendEvent(getReactApplicationContext(), "BlastedEventLog", "Image is in local assets. Local url: " + imagePath);
-            glideUrl = Uri.parse("file:///android_asset/" + imagePath);
-            if (showLog) sendEvent(getReactApplicationContext(), "BlastedEventLog", "Glide Url: " + glideUrl.toString());
-        } else {
-            if (hybridAssets){
-                if (showLog) sendEvent(getReactApplicationContext(), "BlastedEventLog", "Image is not in local assets (Use URL). Local url: " + imagePath + ". Remote url: " + imageUrl);
-            } else {
-                if (showLog) sendEvent(getReactApplicationContext(), "BlastedEventLog", "Local assets disabled. Use remote url: " + imageUrl);
-            }
+    @Override
+    public void onHostPause() {
+        if (isGlideInitialized) {
+            BlastedCacheIndex.getInstance(mReactContext).flushAccessTimes(); // The app may be killed in the background
+        }
+    }
 
-            // Custom cache key only applies to remote urls
-            boolean hasCacheKey = cacheKey != null && !cacheKey.isEmpty();
-            if (hasCacheKey && showLog) sendEvent(getReactApplicationContext(), "BlastedEventLog", "Using custom cache key: " + cacheKey);
+    @Override
+    public void onHostDestroy() {
+        scrollController.reset();
+    }
 
-            // Build GlideUrl with headers if provided
-            if (headers != null && headers.toHashMap().size() > 0) {
-                LazyHeaders.Builder headersBuilder = new LazyHeaders.Builder();
+    // Scroll state of a list from useBlastedScroll: idle, scrolling or fling. Requests are paused while any list flings.
+    @ReactMethod
+    public void setScrollState(double listId, final String state) {
+        final int id = (int) listId;
+        ensureGlideInitialized(mReactContext);
+        UiThreadUtil.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                scrollController.setState(id, state);
+            }
+        });
+    }
 
-                for (Map.Entry<String, Object> entry : headers.toHashMap().entrySet()) {
-                    if (entry.getValue() != null) {
-                        headersBuilder.addHeader(entry.getKey(), entry.getValue().toString());
-                        if (showLog) sendEvent(getReactApplicationContext(), "BlastedEventLog", "Adding header: " + entry.getKey() + " = " + entry.getValue().toString());
-                    }
+    // Configure cache sizes. Sizes only apply if called before the first image is loaded, the memory category applies at any time.
+    @ReactMethod
+    public void configure(ReadableMap options, final Promise promise) {
+        try {
+            final boolean applied;
+            synchronized (BlastedImageModule.class) {
+                applied = !isGlideInitialized;
+                cacheConfig.update(options);
+                BlastedHttpClient.configure(options);
+            }
+            BlastedRetryPolicy.configure(options);
+            BlastedUrlRewriter.configure(options);
+            BlastedCircuitBreaker.configure(options);
+            BlastedCacheIndex.getInstance(mReactContext).setDefaultTtl(cacheConfig.getCacheTtl());
+
+            if (!applied) {
+                sendEvent(getReactApplicationContext(), "BlastedEventLog", "configure() called after the first image was loaded. Cache sizes apply on next app start.");
+                if (options.hasKey("memoryCategory")) {
+                    mReactContext.runOnUiQueueThread(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (memoryTrimmer != null) {
+                                memoryTrimmer.setDefaultCategory(cacheConfig.getMemoryCategory());
+                            }
+                        }
+                    });
                 }
-
-                glideUrl = hasCacheKey ? new BlastedGlideUrl(imageUrl, cacheKey, headersBuilder.build()) : new GlideUrl(imageUrl, headersBuilder.build());
-            } else {
-                glideUrl = hasCacheKey ? new BlastedGlideUrl(imageUrl, cacheKey) : new GlideUrl(imageUrl);
             }
+
+            WritableMap result = cacheConfig.toWritableMap(mReactContext);
+            result.putBoolean("applied", applied);
+            promise.resolve(result);
+        } catch (Exception e) {
+            promise.reject("ERROR_CONFIGURE", "Failed to configure cache", e);
         }
+    }
+
+    static void sendEvent(ReactContext reactContext, String eventName, String message) {
+        WritableMap params = Arguments.createMap();
+        params.putString("message", "["+NAME+"] "+message);
+        reactContext
+            .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+            .emit(eventName, params);
+    }
 
-        return glideUrl;
+    // Returns where a loaded image came from: MEMORY, LOCAL, DISK or NETWORK
+    public static String describeDataSource(Object model, DataSource dataSource) {
+        if (dataSource == DataSource.MEMORY_CACHE) {
+            return "MEMORY";
+        } else if (model.toString().startsWith("file:///android_asset/")) {
+            return "LOCAL";
+        } else if (dataSource == DataSource.DATA_DISK_CACHE || dataSource == DataSource.RESOURCE_DISK_CACHE) {
+            return "DISK";
+        }
+        return "NETWORK";
     }
 
     // Show/Preload the image
     @ReactMethod
-    public void loadImage(String imageUrl, boolean skipMemoryCache, boolean hybridAssets, String cloudUrl, @Nullable ReadableMap headers, @Nullable String cacheKey, Promise promise) {
+    public void loadImage(String imageUrl, boolean skipMemoryCache, boolean hybridAssets, String cloudUrl, @Nullable ReadableMap headers, @Nullable String cacheKey, final Promise promise) {
+        String registeredKey = null;
 
         try {
+            ensureGlideInitialized(mReactContext);
+
+            final long startTime = BlastedStats.now();
+
             // See BlastedImageModule.m for details regarding NativeEventEmitters (BlastedEventLog etc.)
-            Object glideUrl = prepareGlideUrl(imageUrl, hybridAssets, cloudUrl, true, headers, cacheKey);
+            Object glideUrl = urlResolver.prepareGlideUrl(imageUrl, hybridAssets, cloudUrl, true, headers, cacheKey);
 
             // Is skip skipMemoryCache set for image and should we store it only to disk?
             RequestOptions requestOptions = new RequestOptions();
@@ -167,45 +235,426 @@ public class BlastedImageModule extends ReactContextBaseJavaModule {
                 Log.d("BlastedImageModule", "Memory cache image");
             }
 
-            Glide.with(getCurrentActivity() != null ? getCurrentActivity() : getReactApplicationContext())
+            // Same image already being preloaded by preloadBatch or another call, resolve with it
+            final String requestKey = BlastedRequestRegistry.requestKey(glideUrl, requestOptions);
+            boolean joined = BlastedRequestRegistry.join(requestKey, new BlastedRequestRegistry.Listener() {
+                @Override
+                public void onComplete(@Nullable String source, @Nullable String error, boolean retryable) {
+                    if (error == null) {
+                        promise.resolve(true);
+                    } else {
+                        promise.reject("ERROR", "Failed to cache image: " + error);
+                    }
+                }
+            });
+            if (joined) {
+                return;
+            }
+            registeredKey = requestKey;
+
+            // The application's RequestManager isn't stopped with the Activity or paused while lists fling
+            RequestManager requestManager = Glide.with(getReactApplicationContext());
+            final BlastedPreloadTarget preloadTarget = new BlastedPreloadTarget(requestManager, requestKey);
+            requestManager
                 .load(glideUrl)
                 .apply(requestOptions)
                 .listener(new RequestListener<Drawable>() {
                     @Override
                     public boolean onLoadFailed(@Nullable GlideException e, Object model, Target<Drawable> target, boolean isFirstResource) {
-                        promise.reject("ERROR", "Failed to cache image", e);
+                        preloadTarget.finish();
+                        BlastedStats.recordFailure(model, 0, startTime);
+                        BlastedRequestRegistry.complete(requestKey, null, e != null ? e.getMessage() : "Unknown error", BlastedRetryPolicy.isRetryable(e));
                         return false;
                     }
 
                     @Override
-                    public boolean onResourceReady(Drawable resource, Object model, Target<Drawable> target, com.bumptech.glide.load.DataSource dataSource, boolean isFirstResource) {
-                        String message;                      
-                        
-                        if (dataSource == com.bumptech.glide.load.DataSource.MEMORY_CACHE) {
-                            message = "(MEMORY) " + model.toString();
-                        } else if (model.toString().startsWith("file:///android_asset/")) {
-                            message = "(LOCAL) " + model.toString();
-                        } else if (dataSource == com.bumptech.glide.load.DataSource.DATA_DISK_CACHE || dataSource == com.bumptech.glide.load.DataSource.RESOURCE_DISK_CACHE) {
-                            message = "(DISK) " + model.toString();
-                        } else {
-                            message = "(NETWORK) " + model.toString();
-                        }
+                    public boolean onResourceReady(Drawable resource, Object model, Target<Drawable> target, DataSource dataSource, boolean isFirstResource) {
+                        preloadTarget.finish();
+                        long downloaded = BlastedStats.recordLoad(model, dataSource, resource, 0, startTime);
+                        BlastedCacheIndex.recordLoad(mReactContext, model, dataSource, downloaded, 0);
+                        String message = "(" + describeDataSource(model, dataSource) + ") " + model.toString();
 
                         sendEvent(getReactApplicationContext(), "BlastedEventLoaded", message);
-                        promise.resolve(true);
+                        BlastedRequestRegistry.complete(requestKey, describeDataSource(model, dataSource), null);
                         
                         return false;
                     }
                 })
-                .preload();
+                .into(preloadTarget);
+        } catch (Exception e) {
+            if (registeredKey != null) {
+                BlastedRequestRegistry.complete(registeredKey, null, e.getMessage());
+            } else {
+                promise.reject("ERROR", "Failed to cache image", e);
+            }
+        }
+    }
+
+    // Preload a list of images in one call. Requests run through the preload scheduler with a bounded
+    // number in flight and the promise resolves once with the status of every item.
+    @ReactMethod
+    public void preloadBatch(ReadableArray images, @Nullable ReadableMap options, final Promise promise) {
+        ensureGlideInitialized(mReactContext);
+
+        final int count = images != null ? images.size() : 0;
+        final int defaultPriority = BlastedPreloadScheduler.parsePriority(
+            options != null && options.hasKey("priority") ? options.getString("priority") : null,
+            BlastedPreloadScheduler.PRIORITY_VISIBLE);
+        final int retries = options != null && options.hasKey("retries") ? Math.max(1, options.getInt("retries")) : 1;
+
+        // Only limits this batch, the scheduler is shared with every other batch and the scroll prefetch
+        final BlastedPreloadScheduler.Limit limit = options != null && options.hasKey("concurrency")
+            ? new BlastedPreloadScheduler.Limit(options.getInt("concurrency"))
+            : null;
+
+        final String[] uris = new String[count];
+        final String[] statuses = new String[count];
+        final String[] sources = new String[count];
+        final String[] errors = new String[count];
+        final int[] attempts = new int[count];
+        final long[] enqueuedAt = new long[count];
+        final AtomicInteger remaining = new AtomicInteger(count);
+        final AtomicInteger failed = new AtomicInteger(0);
+
+        final Runnable onItemDone = new Runnable() {
+            @Override
+            public void run() {
+                if (remaining.decrementAndGet() != 0) {
+                    return;
+                }
+
+                WritableArray items = Arguments.createArray();
+                for (int i = 0; i < count; i++) {
+                    WritableMap item = Arguments.createMap();
+                    item.putString("uri", uris[i]);
+                    item.putString("status", statuses[i]);
+                    item.putString("source", sources[i]);
+                    item.putString("error", errors[i]);
+                    item.putInt("attempts", attempts[i]);
+                    items.pushMap(item);
+                }
+
+                WritableMap result = Arguments.createMap();
+                result.putInt("total", count);
+                result.putInt("loaded", count - failed.get());
+                result.putInt("failed", failed.get());
+                result.putArray("items", items);
+
+                sendEvent(getReactApplicationContext(), "BlastedEventLoaded", "(BATCH) " + (count - failed.get()) + "/" + count + " images preloaded");
+                promise.resolve(result);
+            }
+        };
+
+        if (count == 0) {
+            remaining.set(1);
+            onItemDone.run();
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            final int index = i;
+            final ReadableMap image = images.getType(i) == ReadableType.Map ? images.getMap(i) : null;
+
+            uris[index] = image != null && image.hasKey("uri") ? image.getString("uri") : null;
+
+            if (image == null || uris[index] == null || uris[index].isEmpty()) {
+                statuses[index] = "failed";
+                errors[index] = "Invalid image entry";
+                failed.incrementAndGet();
+                onItemDone.run();
+                continue;
+            }
+
+            final int priority = BlastedPreloadScheduler.parsePriority(
+                image.hasKey("priority") ? image.getString("priority") : null, defaultPriority);
+
+            enqueuedAt[index] = BlastedStats.now();
+            preloadScheduler.enqueue(priority, limit, new BlastedPreloadScheduler.Task() {
+                @Override
+                public void run(final Runnable onComplete) {
+                    final BlastedPreloadScheduler.Task self = this;
+                    attempts[index]++;
+                    startBatchRequest(image, priority, BlastedStats.now() - enqueuedAt[index], new BatchItemCallback() {
+                        @Override
+                        public void onLoaded(String source) {
+                            statuses[index] = "loaded";
+                            sources[index] = source;
+                            errors[index] = null;
+                            onComplete.run();
+                            onItemDone.run();
+                        }
+
+                        @Override
+                        public void onFailed(String error, boolean retryable) {
+                            onComplete.run();
+                            // Network errors were already retried by the fetcher, this requests the whole image again
+                            // but not when it can't succeed, like a 404 or a host whose circuit breaker is open
+                            if (retryable && attempts[index] < retries) {
+                                enqueuedAt[index] = BlastedStats.now();
+                                preloadScheduler.enqueue(priority, limit, self);
+                                return;
+                            }
+                            statuses[index] = "failed";
+                            errors[index] = error;
+                            failed.incrementAndGet();
+                            onItemDone.run();
+                        }
+                    });
+                }
+            });
+        }
+    }
+
+    private interface BatchItemCallback {
+        void onLoaded(String source);
+        void onFailed(String error, boolean retryable);
+    }
+
+    private void startBatchRequest(ReadableMap image, int priority, final long queueWait, final BatchItemCallback callback) {
+        final long startTime = BlastedStats.now();
+        String requestKey = null;
+
+        try {
+            String uri = image.getString("uri");
+            boolean skipMemoryCache = image.hasKey("skipMemoryCache") && image.getBoolean("skipMemoryCache");
+            boolean hybridAssets = image.hasKey("hybridAssets") && image.getBoolean("hybridAssets");
+            String cloudUrl = image.hasKey("cloudUrl") ? image.getString("cloudUrl") : null;
+            ReadableMap headers = image.hasKey("headers") ? image.getMap("headers") : null;
+            String cacheKey = image.hasKey("cacheKey") ? image.getString("cacheKey") : null;
+            final long ttl = image.hasKey("ttl") ? Math.max(0, (long) image.getDouble("ttl")) : 0;
+
+            RequestOptions requestOptions = new RequestOptions();
+
+            // With the size of the view the image is decoded like the view would, so it is a memory cache hit when shown
+            int width = image.hasKey("width") ? image.getInt("width") : 0;
+            int height = image.hasKey("height") ? image.getInt("height") : 0;
+            if (width > 0 && height > 0) {
+                float decodeScale = image.hasKey("decodeScale") ? (float) image.getDouble("decodeScale") : 1f;
+                requestOptions = BlastedViewManager.buildRequestOptions(
+                    width,
+                    height,
+                    decodeScale > 0f ? decodeScale : 1f,
+                    image.hasKey("downsample") ? image.getString("downsample") : null,
+                    image.hasKey("bitmapConfig") ? image.getString("bitmapConfig") : null,
+                    SvgSizeBuckets.isSvgUrl(uri));
+                requestOptions = BlastedViewManager.applyResizeMode(requestOptions, image.hasKey("resizeMode") ? image.getString("resizeMode") : null);
+            }
+
+            // Same size as the view asks for, so a rewritten CDN url is the same variant
+            Object glideUrl = urlResolver.prepareGlideUrl(uri, hybridAssets, cloudUrl, false, headers, cacheKey,
+                Math.max(0, requestOptions.getOverrideWidth()), Math.max(0, requestOptions.getOverrideHeight()),
+                image.hasKey("animated") && image.getBoolean("animated"));
+
+            requestOptions = requestOptions
+                .priority(BlastedPreloadScheduler.toGlidePriority(priority))
+                .skipMemoryCache(skipMemoryCache);
+
+            // The same image at the same size is already being preloaded, complete with it
+            final String key = BlastedRequestRegistry.requestKey(glideUrl, requestOptions);
+            boolean joined = BlastedRequestRegistry.join(key, new BlastedRequestRegistry.Listener() {
+                @Override
+                public void onComplete(@Nullable String source, @Nullable String error, boolean retryable) {
+                    if (error == null) {
+                        callback.onLoaded(source);
+                    } else {
+                        callback.onFailed(error, retryable);
+                    }
+                }
+            });
+            if (joined) {
+                return;
+            }
+            requestKey = key;
+
+            RequestManager requestManager = Glide.with(getReactApplicationContext());
+            final BlastedPreloadTarget preloadTarget = new BlastedPreloadTarget(requestManager, key);
+            requestManager
+                .load(glideUrl)
+                .apply(requestOptions)
+                .listener(new RequestListener<Drawable>() {
+                    @Override
+                    public boolean onLoadFailed(@Nullable GlideException e, Object model, Target<Drawable> target, boolean isFirstResource) {
+                        preloadTarget.finish();
+                        BlastedStats.recordFailure(model, queueWait, startTime);
+                        BlastedRequestRegistry.complete(key, null, e != null ? e.getMessage() : "Failed to cache image", BlastedRetryPolicy.isRetryable(e));
+                        return false;
+                    }
+
+                    @Override
+                    public boolean onResourceReady(Drawable resource, Object model, Target<Drawable> target, DataSource dataSource, boolean isFirstResource) {
+                        preloadTarget.finish();
+                        long downloaded = BlastedStats.recordLoad(model, dataSource, resource, queueWait, startTime);
+                        BlastedCacheIndex.recordLoad(mReactContext, model, dataSource, downloaded, ttl);
+                        BlastedRequestRegistry.complete(key, describeDataSource(model, dataSource), null);
+                        return false;
+                    }
+                })
+                .into(preloadTarget);
         } catch (Exception e) {
-            promise.reject("ERROR", "Failed to cache image", e);
+            String error = e.getMessage() != null ? e.getMessage() : "Failed to cache image";
+            if (requestKey != null) {
+                BlastedRequestRegistry.complete(requestKey, null, error);
+            } else {
+                callback.onFailed(error, false);
+            }
+        }
+    }
+
+    // Request counters, cache hit ratios, load latency percentiles and the most recent loads
+    @ReactMethod
+    public void getStats(final Promise promise) {
+        promise.resolve(BlastedStats.toWritableMap());
+    }
+
+    @ReactMethod
+    public void resetStats(final Promise promise) {
+        BlastedStats.reset();
+        promise.resolve(null);
+    }
+
+    // Whether each key (cacheKey or url) is in the disk cache and not expired. Takes an array so a list can check all visible items in one call.
+    @ReactMethod
+    public void isCached(final ReadableArray keys, final Promise promise) {
+        ensureGlideInitialized(mReactContext);
+        BlastedExecutors.cacheQuery().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    BlastedCacheIndex cacheIndex = BlastedCacheIndex.getInstance(mReactContext);
+                    WritableMap result = Arguments.createMap();
+                    for (int i = 0; i < keys.size(); i++) {
+                        String key = keys.getString(i);
+                        if (key != null) {
+                            result.putBoolean(key, cacheIndex.isCached(key));
+                        }
+                    }
+                    promise.resolve(result);
+                } catch (Exception e) {
+                    promise.reject("ERROR_CACHE_LOOKUP", "Failed to look up cache", e);
+                }
+            }
+        });
+    }
+
+    // Same lookup for one key, answered on the JS thread (synchronously over JSI on the New Architecture) so a render can
+    // decide what to show without waiting. Only reads the in-memory index, which is loaded in the background after the first load.
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public boolean isCachedSync(String key) {
+        return isGlideInitialized && key != null && BlastedCacheIndex.getInstance(mReactContext).isIndexed(key);
+    }
+
+    // Remove one key, or every indexed key starting with it, from the disk cache. Images already in memory stay until clearMemoryCache().
+    @ReactMethod
+    public void evict(final String keyOrPrefix, final boolean prefix, final Promise promise) {
+        ensureGlideInitialized(mReactContext);
+        BlastedExecutors.maintenance().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    int evicted = BlastedCacheIndex.getInstance(mReactContext).evict(keyOrPrefix, prefix);
+                    promise.resolve(evicted);
+                } catch (Exception e) {
+                    Log.e("BlastedImageModule", "Error evicting " + keyOrPrefix, e);
+                    promise.reject("ERROR_EVICT", "Failed to evict from cache", e);
+                }
+            }
+        });
+    }
+
+    // Bytes on disk plus what the index knows about
+    @ReactMethod
+    public void getCacheSize(final Promise promise) {
+        ensureGlideInitialized(mReactContext);
+        BlastedExecutors.cacheQuery().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    BlastedCacheIndex cacheIndex = BlastedCacheIndex.getInstance(mReactContext);
+                    WritableMap result = Arguments.createMap();
+                    result.putDouble("diskBytes", directorySize(cacheConfig.getDiskCacheDirectory(mReactContext)));
+                    result.putDouble("indexedBytes", cacheIndex.getIndexedSize());
+                    result.putInt("indexedEntries", cacheIndex.getEntryCount());
+                    promise.resolve(result);
+                } catch (Exception e) {
+                    promise.reject("ERROR_CACHE_SIZE", "Failed to get cache size", e);
+                }
+            }
+        });
+    }
+
+    // Pack the disk cache entries of the given keys (cacheKey or url) into one file, e.g. to ship as a content pack
+    @ReactMethod
+    public void exportCache(final ReadableArray keys, final String path, final Promise promise) {
+        ensureGlideInitialized(mReactContext);
+        BlastedExecutors.maintenance().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    // Rewritten CDN images are exported with every cached variant
+                    BlastedCacheIndex cacheIndex = BlastedCacheIndex.getInstance(mReactContext);
+                    List<String> keyList = new ArrayList<>();
+                    for (int i = 0; i < keys.size(); i++) {
+                        keyList.addAll(cacheIndex.expandKey(keys.getString(i)));
+                    }
+                    BlastedCacheBundle.Result result = BlastedCacheBundle.export(keyList, toFile(path));
+                    promise.resolve(bundleResult(result));
+                } catch (Exception e) {
+                    Log.e("BlastedImageModule", "Error exporting cache bundle", e);
+                    promise.reject("ERROR_EXPORT_CACHE", "Failed to export cache bundle", e);
+                }
+            }
+        });
+    }
+
+    // Unpack a file created by exportCache into the disk cache so its images load without a download
+    @ReactMethod
+    public void importCache(final String path, @Nullable ReadableMap options, final Promise promise) {
+        ensureGlideInitialized(mReactContext);
+        final boolean overwrite = options != null && options.hasKey("overwrite") && options.getBoolean("overwrite");
+        final long ttl = options != null && options.hasKey("ttl") ? Math.max(0, (long) options.getDouble("ttl")) : 0;
+        BlastedExecutors.maintenance().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    BlastedCacheBundle.Result result = BlastedCacheBundle.importBundle(mReactContext, toFile(path), overwrite, ttl);
+                    sendEvent(getReactApplicationContext(), "BlastedEventLog", "Imported " + result.entries + " images into the disk cache");
+                    promise.resolve(bundleResult(result));
+                } catch (Exception e) {
+                    Log.e("BlastedImageModule", "Error importing cache bundle", e);
+                    promise.reject("ERROR_IMPORT_CACHE", "Failed to import cache bundle", e);
+                }
+            }
+        });
+    }
+
+    private static File toFile(String path) {
+        return new File(path.startsWith("file://") ? path.substring("file://".length()) : path);
+    }
+
+    private static WritableMap bundleResult(BlastedCacheBundle.Result result) {
+        WritableMap map = Arguments.createMap();
+        map.putInt("entries", result.entries);
+        map.putInt("skipped", result.skipped);
+        map.putDouble("bytes", result.bytes);
+        return map;
+    }
+
+    private static long directorySize(File directory) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return 0;
+        }
+        long size = 0;
+        for (File file : files) {
+            size += file.isDirectory() ? directorySize(file) : file.length();
         }
+        return size;
     }
 
     // Clear memory caache
     @ReactMethod
     public void clearMemoryCache(final Promise promise) {
+        ensureGlideInitialized(mReactContext);
         mReactContext.runOnUiQueueThread(new Runnable() {
             @Override
             public void run() {
@@ -224,49 +673,48 @@ public class BlastedImageModule extends ReactContextBaseJavaModule {
     // Clear disk cache
     @ReactMethod
     public void clearDiskCache(final Promise promise) {
-        new Thread(new Runnable() {
+        ensureGlideInitialized(mReactContext);
+        BlastedCacheMaintenance.clearDiskCache(mReactContext, new BlastedCacheMaintenance.Callback() {
             @Override
-            public void run() {
-                try {
-                    Glide.get(mReactContext).clearDiskCache();
-                    sendEvent(getReactApplicationContext(), "BlastedEventClearedDisk", "Disk cache cleared.");
-                    promise.resolve(null);
-                } catch (Exception e) {
-                    Log.e("BlastedImageModule", "Error clearing Glide disk cache", e);
-                    promise.reject("ERROR_CLEARING_DISK_CACHE", "Error clearing disk cache", e);
+            public void onComplete(@Nullable Exception error) {
+                if (error != null) {
+                    promise.reject("ERROR_CLEARING_DISK_CACHE", "Error clearing disk cache", error);
+                    return;
                 }
+                sendEvent(getReactApplicationContext(), "BlastedEventClearedDisk", "Disk cache cleared.");
+                promise.resolve(null);
             }
-        }).start();
+        });
     }
 
     // Clear all caches
     @ReactMethod
     public void clearAllCaches(final Promise promise) {
+        ensureGlideInitialized(mReactContext);
         // Clear memory cache on UI thread
         mReactContext.runOnUiQueueThread(new Runnable() {
             @Override
             public void run() {
                 try {
                     Glide.get(mReactContext).clearMemory();
-                    
-                    // Clear disk cache on a background thread
-                    new Thread(new Runnable() {
-                        @Override
-                        public void run() {
-                            try {
-                                Glide.get(mReactContext).clearDiskCache();
-                                sendEvent(getReactApplicationContext(), "BlastedEventClearedAll", "Memory and disk cache cleared.");
-                                promise.resolve(null);
-                            } catch (Exception e) {
-                                Log.e("BlastedImageModule", "Error clearing Glide disk cache", e);
-                                promise.reject("ERROR_CLEARING_DISK_CACHE", "Error clearing disk cache", e);
-                            }
-                        }
-                    }).start();
                 } catch (Exception e) {
                     Log.e("BlastedImageModule", "Error clearing Glide memory cache", e);
                     promise.reject("ERROR_CLEARING_MEMORY_CACHE", "Error clearing memory cache", e);
+                    return;
                 }
+
+                // Clear disk cache on the maintenance thread
+                BlastedCacheMaintenance.clearDiskCache(mReactContext, new BlastedCacheMaintenance.Callback() {
+                    @Override
+                    public void onComplete(@Nullable Exception error) {
+                        if (error != null) {
+                            promise.reject("ERROR_CLEARING_DISK_CACHE", "Error clearing disk cache", error);
+                            return;
+                        }
+                        sendEvent(getReactApplicationContext(), "BlastedEventClearedAll", "Memory and disk cache cleared.");
+                        promise.resolve(null);
+                    }
+                });
             }
         });
     }
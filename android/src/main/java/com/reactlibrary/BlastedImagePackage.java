@@ -1,22 +1,53 @@
 package com.xerdnu.blastedimage;
 
-import com.facebook.react.ReactPackage;
+import androidx.annotation.Nullable;
+
+import com.facebook.react.TurboReactPackage;
 import com.facebook.react.bridge.NativeModule;
 import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.module.model.ReactModuleInfo;
+import com.facebook.react.module.model.ReactModuleInfoProvider;
 import com.facebook.react.uimanager.ViewManager;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+
+// Registers the module as a TurboModule when the app has the New Architecture enabled, as a bridge module otherwise
+public class BlastedImagePackage extends TurboReactPackage {
 
-public class BlastedImagePackage implements ReactPackage {
+    @Nullable
+    @Override
+    public NativeModule getModule(String name, ReactApplicationContext reactContext) {
+        if (BlastedImageModule.NAME.equals(name)) {
+            return new BlastedImageModule(reactContext);
+        }
+        return null;
+    }
 
     @Override
-    public List<NativeModule> createNativeModules(ReactApplicationContext reactContext) {
-        return Arrays.<NativeModule>asList(new BlastedImageModule(reactContext));
+    public ReactModuleInfoProvider getReactModuleInfoProvider() {
+        return new ReactModuleInfoProvider() {
+            @Override
+            public Map<String, ReactModuleInfo> getReactModuleInfos() {
+                Map<String, ReactModuleInfo> moduleInfos = new HashMap<>();
+                moduleInfos.put(BlastedImageModule.NAME, new ReactModuleInfo(
+                    BlastedImageModule.NAME,
+                    BlastedImageModule.class.getName(),
+                    false, // canOverrideExistingModule
+                    false, // needsEagerInit
+                    false, // hasConstants
+                    false, // isCxxModule
+                    BuildConfig.IS_NEW_ARCHITECTURE_ENABLED // isTurboModule
+                ));
+                return moduleInfos;
+            }
+        };
     }
 
     @Override
     public List<ViewManager> createViewManagers(ReactApplicationContext reactContext) {
         return Arrays.<ViewManager>asList(new BlastedViewManager());
     }
-}
\ No newline at end of file
+}
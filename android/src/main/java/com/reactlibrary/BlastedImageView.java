@@ -0,0 +1,187 @@
+package com.xerdnu.blastedimage;
+
+import android.content.Context;
+import android.graphics.drawable.Animatable;
+import android.graphics.drawable.AnimatedImageDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.widget.ImageView;
+
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.resource.gif.GifDrawable;
+
+import com.facebook.react.bridge.ReadableMap;
+
+// ImageView that keeps the props needed to build its Glide request.
+// Props can arrive in any order so the request is started once all of them are applied (see BlastedViewManager.onAfterUpdateTransaction).
+public class BlastedImageView extends ImageView {
+
+    @Nullable private ReadableMap source;
+    private int targetWidth = 0;
+    private int targetHeight = 0;
+    @Nullable private String downsample;
+    @Nullable private String bitmapConfig;
+    private float decodeScale = 1f;
+    private boolean needsLoad = false;
+    private int loadId = 0;
+    private boolean requestPending = false;
+    private boolean autoplay = true;
+    private int loopCount = -1; // -1 = as encoded in the file, 0 = forever
+    private boolean visibleAggregated = true;
+
+    public BlastedImageView(Context context) {
+        super(context);
+    }
+
+    @Nullable
+    public ReadableMap getSource() {
+        return source;
+    }
+
+    public void setSource(@Nullable ReadableMap source) {
+        this.source = source;
+        needsLoad = true;
+    }
+
+    public int getTargetWidth() {
+        return targetWidth;
+    }
+
+    public int getTargetHeight() {
+        return targetHeight;
+    }
+
+    public void setTargetSize(int width, int height) {
+        if (width != targetWidth || height != targetHeight) {
+            targetWidth = width;
+            targetHeight = height;
+            needsLoad = true;
+        }
+    }
+
+    @Nullable
+    public String getDownsample() {
+        return downsample;
+    }
+
+    public void setDownsample(@Nullable String downsample) {
+        if (!equals(this.downsample, downsample)) {
+            this.downsample = downsample;
+            needsLoad = true;
+        }
+    }
+
+    @Nullable
+    public String getBitmapConfig() {
+        return bitmapConfig;
+    }
+
+    public void setBitmapConfig(@Nullable String bitmapConfig) {
+        if (!equals(this.bitmapConfig, bitmapConfig)) {
+            this.bitmapConfig = bitmapConfig;
+            needsLoad = true;
+        }
+    }
+
+    public float getDecodeScale() {
+        return decodeScale;
+    }
+
+    public void setDecodeScale(float decodeScale) {
+        if (decodeScale <= 0f || decodeScale > 1f) {
+            decodeScale = 1f;
+        }
+        if (decodeScale != this.decodeScale) {
+            this.decodeScale = decodeScale;
+            needsLoad = true;
+        }
+    }
+
+    public void setAutoplay(boolean autoplay) {
+        this.autoplay = autoplay;
+        updateAnimation();
+    }
+
+    public void setLoopCount(int loopCount) {
+        this.loopCount = Math.max(-1, loopCount);
+        applyLoopCount(getDrawable());
+    }
+
+    // Animations only run while autoplay is on and the view is attached and visible
+    public boolean canAnimate() {
+        return autoplay && isAttachedToWindow() && visibleAggregated;
+    }
+
+    public void updateAnimation() {
+        Drawable drawable = getDrawable();
+        if (!(drawable instanceof Animatable)) {
+            return;
+        }
+        Animatable animatable = (Animatable) drawable;
+        if (canAnimate()) {
+            if (!animatable.isRunning()) {
+                animatable.start();
+            }
+        } else if (animatable.isRunning()) {
+            animatable.stop();
+        }
+    }
+
+    public void applyLoopCount(@Nullable Drawable drawable) {
+        if (drawable instanceof GifDrawable) {
+            ((GifDrawable) drawable).setLoopCount(loopCount < 0 ? GifDrawable.LOOP_INTRINSIC : loopCount == 0 ? GifDrawable.LOOP_FOREVER : loopCount);
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P && drawable instanceof AnimatedImageDrawable && loopCount >= 0) {
+            ((AnimatedImageDrawable) drawable).setRepeatCount(loopCount == 0 ? AnimatedImageDrawable.REPEAT_INFINITE : loopCount - 1);
+        }
+    }
+
+    // Detached covers unmounted views and lists with removeClippedSubviews, aggregated visibility covers hidden parents
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        updateAnimation();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        updateAnimation();
+    }
+
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        visibleAggregated = isVisible;
+        updateAnimation();
+    }
+
+    // Returns true once per batch of prop changes that requires a new request
+    public boolean consumeNeedsLoad() {
+        boolean result = needsLoad;
+        needsLoad = false;
+        return result;
+    }
+
+    // Each load gets a new id, results of older loads are dropped. Only used on the UI thread.
+    public int nextLoadId() {
+        return ++loadId;
+    }
+
+    public boolean isCurrentLoad(int id) {
+        return id == loadId;
+    }
+
+    // True while a load was started for this view and neither finished nor was cleared. Only used on the UI thread.
+    public boolean isRequestPending() {
+        return requestPending;
+    }
+
+    public void setRequestPending(boolean requestPending) {
+        this.requestPending = requestPending;
+    }
+
+    private static boolean equals(@Nullable String a, @Nullable String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
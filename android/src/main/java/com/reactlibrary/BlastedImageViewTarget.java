@@ -0,0 +1,54 @@
+package com.xerdnu.blastedimage;
+
+import android.graphics.drawable.Animatable;
+import android.graphics.drawable.Drawable;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.request.target.DrawableImageViewTarget;
+import com.bumptech.glide.request.transition.Transition;
+
+// Applies the view's loopCount to animated images and only lets Glide start them when the view allows it
+// (autoplay on, attached and visible). Glide would otherwise start them when they are set and on every lifecycle start.
+public class BlastedImageViewTarget extends DrawableImageViewTarget {
+
+    private final BlastedImageView imageView;
+
+    public BlastedImageViewTarget(BlastedImageView view) {
+        super(view);
+        this.imageView = view;
+    }
+
+    @Override
+    protected void setResource(@Nullable Drawable resource) {
+        imageView.applyLoopCount(resource);
+        super.setResource(resource);
+    }
+
+    // Not started at all when it can't run, starting and stopping right away would decode a frame for nothing
+    @Override
+    public void onResourceReady(@NonNull Drawable resource, @Nullable Transition<? super Drawable> transition) {
+        if (resource instanceof Animatable && !imageView.canAnimate()) {
+            if (transition == null || !transition.transition(resource, this)) {
+                setResource(resource);
+            }
+            return;
+        }
+        super.onResourceReady(resource, transition);
+    }
+
+    // The drawable shown may not be the one Glide would start, let the view decide
+    @Override
+    public void onStart() {
+        imageView.updateAnimation();
+    }
+
+    @Override
+    public void onStop() {
+        Drawable drawable = imageView.getDrawable();
+        if (drawable instanceof Animatable && ((Animatable) drawable).isRunning()) {
+            ((Animatable) drawable).stop();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.xerdnu.blastedimage;
+
+import android.graphics.drawable.AnimatedImageDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.resource.gif.GifDrawable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+// Memory cache with a separate budget for animated images. Animations are counted with the size their resource reports,
+// which includes the frames they keep in memory, and once they use more than their share of the cache the oldest
+// animation is evicted instead of pushing out static images.
+public class BlastedMemoryCache extends LruResourceCache {
+
+    private final float animatedFraction;
+    private final LinkedHashMap<Key, Integer> animated = new LinkedHashMap<>(); // Oldest first
+    private long animatedBytes = 0;
+    @Nullable private ResourceRemovedListener listener;
+
+    public BlastedMemoryCache(long size, float animatedFraction) {
+        super(size);
+        this.animatedFraction = animatedFraction;
+    }
+
+    @Override
+    public void setResourceRemovedListener(@NonNull ResourceRemovedListener listener) {
+        this.listener = listener;
+        super.setResourceRemovedListener(listener);
+    }
+
+    @Nullable
+    @Override
+    public synchronized Resource<?> put(@NonNull Key key, @Nullable Resource<?> item) {
+        if (animatedDrawable(item) == null) {
+            return super.put(key, item);
+        }
+
+        int size = getSize(item);
+        long budget = (long) (getMaxSize() * animatedFraction);
+        if (size > budget) {
+            // Would never fit its share, the caller releases it like any resource the cache rejects
+            if (listener != null) {
+                listener.onResourceRemoved(item);
+            }
+            return null;
+        }
+
+        untrack(key);
+        Iterator<Key> oldest = animated.keySet().iterator();
+        while (animatedBytes + size > budget && oldest.hasNext()) {
+            Key evict = oldest.next();
+            animatedBytes -= animated.get(evict);
+            oldest.remove();
+            Resource<?> removed = super.remove(evict);
+            if (removed != null && listener != null) {
+                listener.onResourceRemoved(removed);
+            }
+        }
+
+        Resource<?> previous = super.put(key, item); // Evicts a previous entry for the key through onItemEvicted
+        if (contains(key)) {
+            animated.put(key, size);
+            animatedBytes += size;
+        }
+        return previous;
+    }
+
+    @Nullable
+    @Override
+    public synchronized Resource<?> remove(@NonNull Key key) {
+        untrack(key);
+        return super.remove(key);
+    }
+
+    @Override
+    protected void onItemEvicted(@NonNull Key key, @Nullable Resource<?> item) {
+        untrack(key);
+        super.onItemEvicted(key, item);
+    }
+
+    private void untrack(Key key) {
+        Integer size = animated.remove(key);
+        if (size != null) {
+            animatedBytes -= size;
+        }
+    }
+
+    @Nullable
+    private static Drawable animatedDrawable(@Nullable Resource<?> item) {
+        Object value = item != null ? item.get() : null;
+        if (value instanceof GifDrawable) {
+            return (Drawable) value;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P && value instanceof AnimatedImageDrawable) {
+            return (Drawable) value;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,78 @@
+package com.xerdnu.blastedimage;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.MemoryCategory;
+
+// Steps Glide's memory category down when the system reports memory pressure so the cache shrinks before the OS kills the app.
+// Glide already trims its caches on its own callbacks, this only lowers how much it is allowed to grow back.
+// Callbacks are delivered on the main thread which is required by Glide.setMemoryCategory.
+public class BlastedMemoryTrimmer implements ComponentCallbacks2 {
+
+    private final Context context;
+    private MemoryCategory defaultCategory;
+    private MemoryCategory currentCategory;
+
+    public BlastedMemoryTrimmer(Context context, MemoryCategory defaultCategory) {
+        this.context = context.getApplicationContext();
+        this.defaultCategory = defaultCategory;
+        this.currentCategory = defaultCategory;
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_MODERATE || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            setCategory(MemoryCategory.LOW);
+            Glide.get(context).clearMemory();
+        } else if (level >= TRIM_MEMORY_BACKGROUND || level == TRIM_MEMORY_RUNNING_LOW) {
+            setCategory(MemoryCategory.LOW);
+        } else if (level == TRIM_MEMORY_RUNNING_MODERATE) {
+            setCategory(stepDown(currentCategory));
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        onTrimMemory(TRIM_MEMORY_COMPLETE);
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+        // Do nothing
+    }
+
+    // Pushes the category to Glide once it is initialized, setCategory() skips it while the category is unchanged.
+    // Must run on the main thread.
+    public void apply() {
+        Glide.get(context).setMemoryCategory(currentCategory);
+    }
+
+    public void setDefaultCategory(MemoryCategory category) {
+        defaultCategory = category;
+        setCategory(category);
+    }
+
+    // Called when the app comes back to the foreground
+    public void restore() {
+        setCategory(defaultCategory);
+    }
+
+    private void setCategory(MemoryCategory category) {
+        if (category == currentCategory) {
+            return;
+        }
+        Log.d("BlastedMemoryTrimmer", "Memory category " + currentCategory + " -> " + category);
+        currentCategory = category;
+        Glide.get(context).setMemoryCategory(category);
+    }
+
+    private static MemoryCategory stepDown(MemoryCategory category) {
+        return category == MemoryCategory.HIGH ? MemoryCategory.NORMAL : MemoryCategory.LOW;
+    }
+}
@@ -0,0 +1,197 @@
+package com.xerdnu.blastedimage;
+
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.Priority;
+
+import java.util.PriorityQueue;
+
+// Runs preload tasks with a bounded number of requests in flight.
+// Tasks with a lower priority value run first, equal priorities run in the order they were queued.
+public class BlastedPreloadScheduler {
+
+    public static final int PRIORITY_VISIBLE = 0;
+    public static final int PRIORITY_NEXT_PAGE = 1;
+    public static final int PRIORITY_BACKGROUND = 2;
+
+    public static final int DEFAULT_CONCURRENCY = 6;
+
+    public interface Task {
+        // Must call onComplete exactly once when the request has finished (success or failure)
+        void run(Runnable onComplete);
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        final int priority;
+        final long sequence;
+        final Task task;
+
+        Entry(int priority, long sequence, Task task) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.task = task;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            if (priority != other.priority) {
+                return priority < other.priority ? -1 : 1;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    // Caps the tasks of one caller in flight below the scheduler's limit, e.g. the concurrency option of one preloadBatch.
+    // Tasks over the cap wait here and are queued in the scheduler once one of the caller's tasks completes.
+    public static final class Limit {
+        private final int maxConcurrency;
+        private final PriorityQueue<Entry> waiting = new PriorityQueue<>();
+        private int running = 0;
+        private long sequence = 0;
+
+        public Limit(int maxConcurrency) {
+            this.maxConcurrency = Math.max(1, maxConcurrency);
+        }
+    }
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>();
+    private int maxConcurrency = DEFAULT_CONCURRENCY;
+    private int inFlight = 0;
+    private long sequence = 0;
+    private boolean draining = false; // Only one thread starts tasks, completions during a drain are picked up by its loop
+
+    public static int parsePriority(String priority, int fallback) {
+        if (priority == null) {
+            return fallback;
+        }
+        if ("visible".equals(priority)) {
+            return PRIORITY_VISIBLE;
+        } else if ("nextPage".equals(priority)) {
+            return PRIORITY_NEXT_PAGE;
+        } else if ("background".equals(priority)) {
+            return PRIORITY_BACKGROUND;
+        }
+        return fallback;
+    }
+
+    public static Priority toGlidePriority(int priority) {
+        switch (priority) {
+            case PRIORITY_VISIBLE:
+                return Priority.IMMEDIATE;
+            case PRIORITY_NEXT_PAGE:
+                return Priority.HIGH;
+            default:
+                return Priority.LOW;
+        }
+    }
+
+    public synchronized void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    public void enqueue(int priority, Task task) {
+        synchronized (this) {
+            queue.add(new Entry(priority, sequence++, task));
+        }
+        drain();
+    }
+
+    // Tasks that complete synchronously call drain() again from inside the loop, that call returns right away
+    // instead of recursing and the loop starts the next task
+    public void enqueue(int priority, @Nullable Limit limit, Task task) {
+        if (limit == null) {
+            enqueue(priority, task);
+            return;
+        }
+        synchronized (limit) {
+            if (limit.running >= limit.maxConcurrency) {
+                limit.waiting.add(new Entry(priority, limit.sequence++, task));
+                return;
+            }
+            limit.running++;
+        }
+        enqueue(priority, limited(limit, task));
+    }
+
+    // Releases the caller's slot when the task completes and queues its next waiting task in its place
+    private Task limited(final Limit limit, final Task task) {
+        return new Task() {
+            @Override
+            public void run(final Runnable onComplete) {
+                Runnable release = new Runnable() {
+                    private boolean done = false;
+
+                    @Override
+                    public void run() {
+                        synchronized (limit) {
+                            if (done) {
+                                return;
+                            }
+                            done = true;
+                        }
+                        onComplete.run();
+
+                        Entry next;
+                        synchronized (limit) {
+                            next = limit.waiting.poll();
+                            if (next == null) {
+                                limit.running--;
+                                return;
+                            }
+                        }
+                        enqueue(next.priority, limited(limit, next.task));
+                    }
+                };
+
+                try {
+                    task.run(release);
+                } catch (Exception e) {
+                    release.run();
+                }
+            }
+        };
+    }
+
+    private void drain() {
+        synchronized (this) {
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+
+        while (true) {
+            final Entry next;
+            synchronized (this) {
+                if (inFlight >= maxConcurrency || queue.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                next = queue.poll();
+                inFlight++;
+            }
+
+            Runnable onComplete = new Runnable() {
+                private boolean done = false;
+
+                @Override
+                public void run() {
+                    synchronized (BlastedPreloadScheduler.this) {
+                        if (done) {
+                            return;
+                        }
+                        done = true;
+                        inFlight--;
+                    }
+                    drain();
+                }
+            };
+
+            try {
+                next.task.run(onComplete);
+            } catch (Exception e) {
+                onComplete.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.xerdnu.blastedimage;
+
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.request.target.CustomTarget;
+import com.bumptech.glide.request.transition.Transition;
+
+// Same as Glide's PreloadTarget, but completes the registry key if the request is cleared before it finished
+// (its RequestManager destroyed, or cleared by Glide), so callers that joined it don't wait forever.
+// All callbacks run on the main thread.
+final class BlastedPreloadTarget extends CustomTarget<Drawable> {
+
+    private static final Handler HANDLER = new Handler(Looper.getMainLooper());
+
+    private final RequestManager requestManager;
+    private final String requestKey;
+    private boolean finished = false;
+
+    BlastedPreloadTarget(RequestManager requestManager, String requestKey) {
+        this.requestManager = requestManager;
+        this.requestKey = requestKey;
+    }
+
+    // Called from the request listener once it has completed the key
+    void finish() {
+        finished = true;
+    }
+
+    @Override
+    public void onResourceReady(@NonNull Drawable resource, @Nullable Transition<? super Drawable> transition) {
+        // Cleared on the next loop like PreloadTarget, which releases the resource to the memory cache
+        HANDLER.post(new Runnable() {
+            @Override
+            public void run() {
+                requestManager.clear(BlastedPreloadTarget.this);
+            }
+        });
+    }
+
+    @Override
+    public void onLoadCleared(@Nullable Drawable placeholder) {
+        if (!finished) {
+            finished = true;
+            BlastedRequestRegistry.complete(requestKey, null, "Cancelled");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.xerdnu.blastedimage;
+
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.request.RequestOptions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Preloads in flight, keyed on cache key, target size and the decode options that are part of Glide's memory cache key.
+// A preload for a key already in flight joins it instead of starting another request. A view that loads such a key
+// attaches to the preload and starts its request once the preload is done, so it is served from the memory cache.
+public final class BlastedRequestRegistry {
+
+    public interface Listener {
+        // retryable tells whether a failure may succeed when requested again, see BlastedRetryPolicy
+        void onComplete(@Nullable String source, @Nullable String error, boolean retryable);
+    }
+
+    private static final Map<String, List<Listener>> inFlight = new HashMap<>();
+
+    private BlastedRequestRegistry() {
+    }
+
+    // skipMemoryCache and priority are not part of the key, they don't change the decoded image
+    public static String requestKey(Object model, RequestOptions options) {
+        String modelKey = model instanceof GlideUrl ? ((GlideUrl) model).getCacheKey() : model.toString();
+        return modelKey
+            + "|" + options.getOverrideWidth() + "x" + options.getOverrideHeight()
+            + "|" + options.getOptions().hashCode()
+            + "|" + options.getTransformations().hashCode()
+            + "|" + options.getSizeMultiplier();
+    }
+
+    // Returns true if the key was already in flight and the listener was attached to it.
+    // Otherwise the key is registered, the caller must start the request and call complete() when it finishes,
+    // fails or is cleared before it finished (see BlastedPreloadTarget), or the key stays in flight for the process.
+    public static boolean join(String key, Listener listener) {
+        synchronized (inFlight) {
+            List<Listener> listeners = inFlight.get(key);
+            if (listeners != null) {
+                listeners.add(listener);
+                BlastedStats.requestDeduplicated();
+                return true;
+            }
+            listeners = new ArrayList<>();
+            listeners.add(listener);
+            inFlight.put(key, listeners);
+            return false;
+        }
+    }
+
+    // Returns true if the key was in flight and the listener was attached to it, the key is not registered otherwise
+    public static boolean attach(String key, Listener listener) {
+        synchronized (inFlight) {
+            List<Listener> listeners = inFlight.get(key);
+            if (listeners == null) {
+                return false;
+            }
+            listeners.add(listener);
+            BlastedStats.requestDeduplicated();
+            return true;
+        }
+    }
+
+    public static void complete(String key, @Nullable String source, @Nullable String error) {
+        complete(key, source, error, false);
+    }
+
+    public static void complete(String key, @Nullable String source, @Nullable String error, boolean retryable) {
+        List<Listener> listeners;
+        synchronized (inFlight) {
+            listeners = inFlight.remove(key);
+        }
+        if (listeners == null) {
+            return;
+        }
+        for (Listener listener : listeners) {
+            listener.onComplete(source, error, retryable);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.xerdnu.blastedimage;
+
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.HttpException;
+import com.bumptech.glide.load.engine.GlideException;
+import com.facebook.react.bridge.ReadableMap;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// When and how often failed downloads are retried by BlastedHttpFetcher. Delays grow exponentially with full jitter
+// (a random delay between 0 and the exponential step) so failed requests from a list don't retry in lockstep.
+// Only transient failures are retried: connection errors, timeouts, 408, 429 and 5xx.
+public final class BlastedRetryPolicy {
+
+    public static final int DEFAULT_RETRIES = 2;
+    public static final long DEFAULT_BASE_DELAY_MS = 500;
+    public static final long MAX_DELAY_MS = 10000;
+
+    private static int retries = DEFAULT_RETRIES;
+    private static long baseDelayMs = DEFAULT_BASE_DELAY_MS;
+
+    private BlastedRetryPolicy() {
+    }
+
+    public static synchronized void configure(ReadableMap options) {
+        if (options.hasKey("networkRetries")) {
+            retries = Math.max(0, options.getInt("networkRetries"));
+        }
+        if (options.hasKey("retryBaseDelay")) {
+            baseDelayMs = Math.max(0, (long) options.getDouble("retryBaseDelay"));
+        }
+    }
+
+    public static synchronized int getRetries() {
+        return retries;
+    }
+
+    // attempt is the number of the retry, starting at 1
+    public static synchronized long delayMs(int attempt) {
+        long step = Math.min(MAX_DELAY_MS, baseDelayMs << Math.min(attempt - 1, 16));
+        return step > 0 ? ThreadLocalRandom.current().nextLong(step + 1) : 0;
+    }
+
+    public static boolean isRetryable(@Nullable Throwable error) {
+        if (error instanceof HttpException) {
+            return isRetryableStatus(((HttpException) error).getStatusCode());
+        }
+        if (error instanceof BlastedCircuitBreaker.OpenException) {
+            return false; // Fails fast until the host recovers
+        }
+        // Timeouts, refused or reset connections and failed DNS lookups (usually a lost connection on mobile).
+        // OkHttp reports cancelled calls as an IOException with this message, they must not come back.
+        return error instanceof IOException && !"Canceled".equals(error.getMessage());
+    }
+
+    // A load failed in Glide, retry it only if one of its causes is transient. Without a cause nothing says it was.
+    public static boolean isRetryable(@Nullable GlideException error) {
+        if (error == null) {
+            return false;
+        }
+        for (Throwable cause : error.getRootCauses()) {
+            if (isRetryable(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean isRetryableStatus(int status) {
+        return status == 408 || status == 429 || (status >= 500 && status != 501 && status != 505);
+    }
+}
@@ -0,0 +1,135 @@
+package com.xerdnu.blastedimage;
+
+import android.content.Context;
+import android.util.SparseArray;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.WindowManager;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Tracks the scroll state of lists reported from JS (useBlastedScroll). While any list is flinging, views that get a new
+// source hold their request so cells flashing by don't start loads, it starts on resume if the view still shows that source.
+// Loads already running keep going, images on screen don't reload. Glide's pauseRequests() would cancel them.
+// Frames are counted while any list is scrolling to report dropped frames in getStats(). All methods run on the UI thread.
+public class BlastedScrollController implements Choreographer.FrameCallback {
+
+    public static final String STATE_IDLE = "idle";
+    public static final String STATE_SCROLLING = "scrolling";
+    public static final String STATE_FLING = "fling";
+
+    // Process wide, view requests are started by the view manager which doesn't know the module instance
+    private static final List<Runnable> heldRequests = new ArrayList<>();
+    private static boolean flinging = false;
+
+    private final ReactApplicationContext reactContext;
+    private final SparseArray<String> states = new SparseArray<>();
+
+    private boolean monitoring = false;
+    private long lastFrameNanos = 0;
+    private long frameIntervalNanos = 0;
+
+    public BlastedScrollController(ReactApplicationContext reactContext) {
+        this.reactContext = reactContext;
+    }
+
+    public void setState(int listId, String state) {
+        if (STATE_SCROLLING.equals(state) || STATE_FLING.equals(state)) {
+            states.put(listId, state);
+        } else {
+            states.remove(listId);
+        }
+
+        boolean fling = false;
+        for (int i = 0; i < states.size(); i++) {
+            if (STATE_FLING.equals(states.valueAt(i))) {
+                fling = true;
+                break;
+            }
+        }
+
+        if (fling) {
+            pause();
+        } else {
+            resume();
+        }
+        setMonitoring(states.size() > 0);
+    }
+
+    // Lists can't report idle once the host is gone
+    public void reset() {
+        states.clear();
+        resume();
+        setMonitoring(false);
+    }
+
+    // Returns true if a list is flinging and the request was held, it runs on resume. Otherwise the caller starts it.
+    public static boolean holdWhileFlinging(Runnable startRequest) {
+        if (!flinging) {
+            return false;
+        }
+        heldRequests.add(startRequest);
+        return true;
+    }
+
+    private static void pause() {
+        if (flinging) {
+            return;
+        }
+        flinging = true;
+        BlastedStats.scrollPaused();
+    }
+
+    private static void resume() {
+        if (!flinging) {
+            return;
+        }
+        flinging = false;
+        List<Runnable> held = new ArrayList<>(heldRequests);
+        heldRequests.clear();
+        for (Runnable startRequest : held) {
+            startRequest.run();
+        }
+    }
+
+    private void setMonitoring(boolean enabled) {
+        if (monitoring == enabled) {
+            return;
+        }
+        monitoring = enabled;
+        lastFrameNanos = 0;
+        if (enabled) {
+            frameIntervalNanos = getFrameIntervalNanos();
+            Choreographer.getInstance().postFrameCallback(this);
+        } else {
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!monitoring) {
+            return;
+        }
+        if (lastFrameNanos > 0) {
+            long elapsed = frameTimeNanos - lastFrameNanos;
+            long dropped = Math.max(0, Math.round((double) elapsed / frameIntervalNanos) - 1);
+            BlastedStats.recordFrame(dropped);
+        }
+        lastFrameNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    private long getFrameIntervalNanos() {
+        float refreshRate = 60f;
+        WindowManager windowManager = (WindowManager) reactContext.getSystemService(Context.WINDOW_SERVICE);
+        Display display = windowManager != null ? windowManager.getDefaultDisplay() : null;
+        if (display != null && display.getRefreshRate() > 0f) {
+            refreshRate = display.getRefreshRate();
+        }
+        return (long) (1000000000L / refreshRate);
+    }
+}
@@ -0,0 +1,326 @@
+package com.xerdnu.blastedimage;
+
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.SystemClock;
+
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.resource.gif.GifDrawable;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Process wide counters and load metrics, read from JS with BlastedImage.getStats().
+// Keeps the last RECENT_SIZE loads in full and the last LATENCY_WINDOW load times for percentiles.
+public final class BlastedStats {
+
+    private static final int RECENT_SIZE = 100;
+    private static final int LATENCY_WINDOW = 500;
+    private static final int MAX_PENDING_FETCHES = 256;
+
+    private static final AtomicLong started = new AtomicLong();
+    private static final AtomicLong completed = new AtomicLong();
+    private static final AtomicLong failed = new AtomicLong();
+    private static final AtomicLong cancelled = new AtomicLong();
+    private static final AtomicLong coalescedFetches = new AtomicLong();
+    private static final AtomicLong coalescedRequests = new AtomicLong();
+    private static final AtomicLong retries = new AtomicLong();
+    private static final AtomicLong circuitRejections = new AtomicLong();
+    private static final AtomicLong scrollPauses = new AtomicLong();
+    private static final AtomicLong scrollFrames = new AtomicLong();
+    private static final AtomicLong droppedFrames = new AtomicLong();
+
+    // Fetch results by cache key until the load that triggered them completes
+    private static final ConcurrentHashMap<String, long[]> pendingFetches = new ConcurrentHashMap<>();
+
+    private static final class LoadRecord {
+        String url;
+        @Nullable String dataSource;
+        long queueWait;
+        long fetchTime;
+        long decodeTime;
+        long totalTime;
+        long bytesDownloaded;
+        long decodedBytes;
+        boolean failed;
+
+        WritableMap toWritableMap() {
+            WritableMap map = Arguments.createMap();
+            map.putString("url", url);
+            map.putString("dataSource", dataSource);
+            map.putDouble("queueWait", queueWait);
+            map.putDouble("fetchTime", fetchTime);
+            map.putDouble("decodeTime", decodeTime);
+            map.putDouble("totalTime", totalTime);
+            map.putDouble("bytesDownloaded", bytesDownloaded);
+            map.putDouble("decodedBytes", decodedBytes);
+            map.putBoolean("failed", failed);
+            return map;
+        }
+    }
+
+    private static final ArrayDeque<LoadRecord> recent = new ArrayDeque<>();
+    private static final long[] latencies = new long[LATENCY_WINDOW];
+    private static int latencyCount = 0;
+    private static long memoryHits = 0;
+    private static long diskHits = 0;
+    private static long localHits = 0;
+    private static long networkLoads = 0;
+    private static long loadFailures = 0;
+    private static long bytesDownloaded = 0;
+    private static long bytesUsed = 0; // Downloaded bytes of loads that completed, the rest was wasted on cancelled loads
+    private static long bytesDecoded = 0;
+
+    private BlastedStats() {
+    }
+
+    public static long now() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    public static void requestStarted() {
+        started.incrementAndGet();
+    }
+
+    public static void requestCompleted() {
+        completed.incrementAndGet();
+    }
+
+    public static void requestFailed() {
+        failed.incrementAndGet();
+    }
+
+    // A view was dropped or got a new source before its request finished
+    public static void requestCancelled() {
+        cancelled.incrementAndGet();
+    }
+
+    // A network fetch attached to an identical download already in flight
+    public static void requestCoalesced() {
+        coalescedFetches.incrementAndGet();
+    }
+
+    // A preload or view load attached to an identical preload already in flight
+    public static void requestDeduplicated() {
+        coalescedRequests.incrementAndGet();
+    }
+
+    // A download failed with a transient error and is tried again
+    public static void requestRetried() {
+        retries.incrementAndGet();
+    }
+
+    // A download failed fast because its host's circuit breaker is open
+    public static void circuitRejected() {
+        circuitRejections.incrementAndGet();
+    }
+
+    // Requests were paused because a list is flinging
+    public static void scrollPaused() {
+        scrollPauses.incrementAndGet();
+    }
+
+    // A frame drawn while a list was scrolling, dropped is the number of frames skipped before it
+    public static void recordFrame(long dropped) {
+        scrollFrames.incrementAndGet();
+        if (dropped > 0) {
+            droppedFrames.addAndGet(dropped);
+        }
+    }
+
+    // Called by BlastedHttpFetcher once per network call, when the body was read to the end or buffered
+    public static void recordFetch(String cacheKey, long fetchMs, long bytes) {
+        synchronized (BlastedStats.class) {
+            bytesDownloaded += bytes;
+        }
+        if (pendingFetches.size() >= MAX_PENDING_FETCHES) {
+            pendingFetches.clear(); // Loads that never completed (cancelled), drop them
+        }
+        pendingFetches.put(cacheKey, new long[] { fetchMs, bytes });
+    }
+
+    // queueWaitMs is the time spent before the Glide request was started, startTime is when it was started.
+    // Returns the bytes downloaded for this load, 0 when it came from a cache.
+    public static long recordLoad(Object model, DataSource dataSource, @Nullable Drawable resource, long queueWaitMs, long startTime) {
+        long totalMs = now() - startTime;
+        String source = BlastedImageModule.describeDataSource(model, dataSource);
+        long[] fetch = model instanceof GlideUrl ? pendingFetches.remove(((GlideUrl) model).getCacheKey()) : null;
+        long fetchMs = fetch != null ? fetch[0] : 0;
+        long decodedBytes = getDecodedSize(resource);
+
+        LoadRecord load = new LoadRecord();
+        load.url = describeModel(model);
+        load.dataSource = source;
+        load.queueWait = queueWaitMs;
+        load.fetchTime = fetchMs;
+        load.decodeTime = Math.max(0, totalMs - fetchMs); // Everything after the fetch: disk cache read, decode and transform
+        load.totalTime = totalMs;
+        load.bytesDownloaded = fetch != null ? fetch[1] : 0;
+        load.decodedBytes = decodedBytes;
+
+        synchronized (BlastedStats.class) {
+            if ("MEMORY".equals(source)) {
+                memoryHits++;
+            } else if ("DISK".equals(source)) {
+                diskHits++;
+            } else if ("LOCAL".equals(source)) {
+                localHits++;
+            } else {
+                networkLoads++;
+            }
+            bytesDecoded += decodedBytes;
+            bytesUsed += load.bytesDownloaded;
+            latencies[latencyCount % LATENCY_WINDOW] = queueWaitMs + totalMs;
+            latencyCount++;
+            addRecent(load);
+        }
+        return load.bytesDownloaded;
+    }
+
+    public static void recordFailure(@Nullable Object model, long queueWaitMs, long startTime) {
+        if (model instanceof GlideUrl) {
+            pendingFetches.remove(((GlideUrl) model).getCacheKey());
+        }
+
+        LoadRecord load = new LoadRecord();
+        load.url = describeModel(model);
+        load.queueWait = queueWaitMs;
+        load.totalTime = now() - startTime;
+        load.failed = true;
+
+        synchronized (BlastedStats.class) {
+            loadFailures++;
+            addRecent(load);
+        }
+    }
+
+    public static WritableMap toWritableMap() {
+        WritableMap requests = Arguments.createMap();
+        requests.putDouble("started", started.get());
+        requests.putDouble("completed", completed.get());
+        requests.putDouble("failed", failed.get());
+        requests.putDouble("cancelled", cancelled.get());
+        requests.putDouble("coalescedFetches", coalescedFetches.get());
+        requests.putDouble("coalescedRequests", coalescedRequests.get());
+        requests.putDouble("retries", retries.get());
+        requests.putDouble("circuitBreakerRejections", circuitRejections.get());
+
+        WritableMap scroll = Arguments.createMap();
+        scroll.putDouble("pauses", scrollPauses.get());
+        scroll.putDouble("frames", scrollFrames.get());
+        scroll.putDouble("droppedFrames", droppedFrames.get());
+
+        WritableMap stats = Arguments.createMap();
+        stats.putMap("requests", requests);
+        stats.putMap("scroll", scroll);
+
+        synchronized (BlastedStats.class) {
+            long loads = memoryHits + diskHits + localHits + networkLoads;
+
+            WritableMap hitRatio = Arguments.createMap();
+            hitRatio.putDouble("memory", ratio(memoryHits, loads));
+            hitRatio.putDouble("disk", ratio(diskHits, loads));
+            hitRatio.putDouble("local", ratio(localHits, loads));
+            hitRatio.putDouble("network", ratio(networkLoads, loads));
+
+            long[] window = Arrays.copyOf(latencies, Math.min(latencyCount, LATENCY_WINDOW));
+            Arrays.sort(window);
+
+            WritableMap latency = Arguments.createMap();
+            latency.putDouble("p50", percentile(window, 0.50));
+            latency.putDouble("p95", percentile(window, 0.95));
+
+            WritableArray recentLoads = Arguments.createArray();
+            for (LoadRecord load : recent) {
+                recentLoads.pushMap(load.toWritableMap());
+            }
+
+            stats.putDouble("loads", loads);
+            stats.putDouble("loadFailures", loadFailures);
+            stats.putMap("hitRatio", hitRatio);
+            stats.putMap("latency", latency);
+            stats.putDouble("bytesDownloaded", bytesDownloaded);
+            stats.putDouble("bytesWasted", Math.max(0, bytesDownloaded - bytesUsed));
+            stats.putDouble("bytesDecoded", bytesDecoded);
+            stats.putArray("recent", recentLoads);
+        }
+
+        return stats;
+    }
+
+    public static void reset() {
+        started.set(0);
+        completed.set(0);
+        failed.set(0);
+        cancelled.set(0);
+        coalescedFetches.set(0);
+        coalescedRequests.set(0);
+        retries.set(0);
+        circuitRejections.set(0);
+        scrollPauses.set(0);
+        scrollFrames.set(0);
+        droppedFrames.set(0);
+        pendingFetches.clear();
+
+        synchronized (BlastedStats.class) {
+            recent.clear();
+            latencyCount = 0;
+            memoryHits = 0;
+            diskHits = 0;
+            localHits = 0;
+            networkLoads = 0;
+            loadFailures = 0;
+            bytesDownloaded = 0;
+            bytesUsed = 0;
+            bytesDecoded = 0;
+        }
+    }
+
+    private static void addRecent(LoadRecord load) {
+        if (recent.size() >= RECENT_SIZE) {
+            recent.removeFirst();
+        }
+        recent.addLast(load);
+    }
+
+    private static long getDecodedSize(@Nullable Drawable resource) {
+        if (resource instanceof BitmapDrawable && ((BitmapDrawable) resource).getBitmap() != null) {
+            return ((BitmapDrawable) resource).getBitmap().getAllocationByteCount();
+        } else if (resource instanceof GifDrawable) {
+            return ((GifDrawable) resource).getSize();
+        } else if (resource != null && resource.getIntrinsicWidth() > 0 && resource.getIntrinsicHeight() > 0) {
+            return (long) resource.getIntrinsicWidth() * resource.getIntrinsicHeight() * 4; // Estimate for other drawables (e.g. SVG)
+        }
+        return 0;
+    }
+
+    // Data URIs can be hundreds of kb, never keep them
+    @Nullable
+    private static String describeModel(@Nullable Object model) {
+        if (model == null) {
+            return null;
+        }
+        String url = model.toString();
+        return url.startsWith("data:") ? "data:" : url;
+    }
+
+    private static double ratio(long count, long total) {
+        return total > 0 ? (double) count / total : 0;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
@@ -0,0 +1,39 @@
+package com.xerdnu.blastedimage;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+
+import java.io.InputStream;
+
+// Replaces Glide's default HttpURLConnection based GlideUrl loader with OkHttp (see BlastedHttpFetcher).
+// Network fetches are measured by BlastedHttpFetcher.
+public class BlastedUrlLoader implements ModelLoader<GlideUrl, InputStream> {
+
+    @Override
+    public LoadData<InputStream> buildLoadData(@NonNull GlideUrl model, int width, int height, @NonNull Options options) {
+        return new LoadData<>(model, new BlastedHttpFetcher(model));
+    }
+
+    @Override
+    public boolean handles(@NonNull GlideUrl model) {
+        return true;
+    }
+
+    public static class Factory implements ModelLoaderFactory<GlideUrl, InputStream> {
+        @NonNull
+        @Override
+        public ModelLoader<GlideUrl, InputStream> build(@NonNull MultiModelLoaderFactory multiFactory) {
+            return new BlastedUrlLoader();
+        }
+
+        @Override
+        public void teardown() {
+            // Do nothing
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.xerdnu.blastedimage;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReadableMap;
+
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.model.LazyHeaders;
+
+import java.util.Map;
+
+import android.net.Uri;
+
+// Turns a source uri into the model Glide loads (GlideUrl, asset Uri or BlastedDataUri).
+// One instance is shared by BlastedImageModule and BlastedViewManager, it holds no per-request state so it is safe to call from any thread.
+public class BlastedUrlResolver {
+
+    private static volatile BlastedUrlResolver instance;
+
+    private final ReactApplicationContext reactContext;
+    private final BlastedAssetIndex assetIndex;
+
+    private BlastedUrlResolver(ReactApplicationContext reactContext) {
+        this.reactContext = reactContext;
+        this.assetIndex = new BlastedAssetIndex(reactContext);
+    }
+
+    // A new instance is created if the React context was recreated (e.g. on reload)
+    public static BlastedUrlResolver getInstance(ReactApplicationContext reactContext) {
+        BlastedUrlResolver current = instance;
+        if (current == null || current.reactContext != reactContext) {
+            synchronized (BlastedUrlResolver.class) {
+                current = instance;
+                if (current == null || current.reactContext != reactContext) {
+                    current = new BlastedUrlResolver(reactContext);
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public String extractImagePathFromUrl(String imageUrl, String cloudUrl) {
+        String imagePath = imageUrl.replace(cloudUrl, "");
+        imagePath = imagePath.split("\\?alt=media")[0];
+
+        imagePath = imagePath.replace("%2F", "/");
+
+        return "blasted-image/" + imagePath;
+    }    
+
+    public boolean doesFileExistInAssets(String filePath) {
+        return assetIndex.contains(filePath);
+    }
+
+    public Object prepareGlideUrl(String imageUrl, boolean hybridAssets, String cloudUrl, boolean showLog, @Nullable ReadableMap headers, @Nullable String cacheKey) throws Exception {
+        return prepareGlideUrl(imageUrl, hybridAssets, cloudUrl, showLog, headers, cacheKey, 0, 0, false);
+    }
+
+    // targetWidth and targetHeight are the decode size in pixels (0 = unknown), remote urls may be rewritten to it unless
+    // the source is animated, see BlastedUrlRewriter
+    public Object prepareGlideUrl(String imageUrl, boolean hybridAssets, String cloudUrl, boolean showLog, @Nullable ReadableMap headers, @Nullable String cacheKey, int targetWidth, int targetHeight, boolean animated) throws Exception {
+        String imagePath = "";
+        Object glideUrl; 
+        boolean fileExistsInAssets = false;
+
+        // Check if it's a base64 data URI
+        if (imageUrl != null && imageUrl.startsWith("data:image/")) {
+            BlastedDataUri dataUri = BlastedDataUri.parse(imageUrl);
+            if (showLog) BlastedImageModule.sendEvent(reactContext, "BlastedEventLog", "Data URI detected: " + (dataUri != null ? dataUri.getCacheKey() : "invalid"));
+            return dataUri != null ? dataUri : imageUrl; // Glide's own data URL loader reports malformed uris
+        }
+
+        if (hybridAssets){
+            imagePath = extractImagePathFromUrl(imageUrl, cloudUrl);
+            fileExistsInAssets = doesFileExistInAssets(imagePath);
+        }
+
+        if (fileExistsInAssets && hybridAssets) {
+            if (showLog) BlastedImageModule.sendEvent(reactContext, "BlastedEventLog", "Image is in local assets. Local url: " + imagePath);
+            glideUrl = Uri.parse("file:///android_asset/" + imagePath);
+            if (showLog) BlastedImageModule.sendEvent(reactContext, "BlastedEventLog", "Glide Url: " + glideUrl.toString());
+        } else {
+            if (hybridAssets){
+                if (showLog) BlastedImageModule.sendEvent(reactContext, "BlastedEventLog", "Image is not in local assets (Use URL). Local url: " + imagePath + ". Remote url: " + imageUrl);
+            } else {
+                if (showLog) BlastedImageModule.sendEvent(reactContext, "BlastedEventLog", "Local assets disabled. Use remote url: " + imageUrl);
+            }
+
+            // Custom cache key only applies to remote urls
+            boolean hasCacheKey = cacheKey != null && !cacheKey.isEmpty();
+            if (hasCacheKey && showLog) BlastedImageModule.sendEvent(reactContext, "BlastedEventLog", "Using custom cache key: " + cacheKey);
+
+            // CDN variant at the target size and preferred format, cached under the variant's key
+            BlastedUrlRewriter.Variant variant = BlastedUrlRewriter.rewrite(imageUrl, cacheKey, targetWidth, targetHeight, animated);
+            if (variant != null) {
+                if (showLog) BlastedImageModule.sendEvent(reactContext, "BlastedEventLog", "Rewritten url: " + variant.url);
+                imageUrl = variant.url;
+                cacheKey = variant.cacheKey;
+                hasCacheKey = true;
+            }
+
+            // Build GlideUrl with headers if provided
+            Map<String, Object> headerMap = headers != null ? headers.toHashMap() : null;
+            if (headerMap != null && headerMap.size() > 0) {
+                LazyHeaders.Builder headersBuilder = new LazyHeaders.Builder();
+
+                for (Map.Entry<String, Object> entry : headerMap.entrySet()) {
+                    if (entry.getValue() != null) {
+                        headersBuilder.addHeader(entry.getKey(), entry.getValue().toString());
+                        if (showLog) BlastedImageModule.sendEvent(reactContext, "BlastedEventLog", "Adding header: " + entry.getKey() + " = " + entry.getValue().toString());
+                    }
+                }
+
+                glideUrl = hasCacheKey ? new BlastedGlideUrl(imageUrl, cacheKey, headersBuilder.build()) : new GlideUrl(imageUrl, headersBuilder.build());
+            } else {
+                glideUrl = hasCacheKey ? new BlastedGlideUrl(imageUrl, cacheKey) : new GlideUrl(imageUrl);
+            }
+        }
+
+        return glideUrl;
+    }
+}
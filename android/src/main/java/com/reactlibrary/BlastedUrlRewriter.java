@@ -0,0 +1,212 @@
+package com.xerdnu.blastedimage;
+
+import android.net.Uri;
+import android.os.Build;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+
+import org.aomedia.avif.android.AvifDecoder;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Rewrites remote urls for CDNs that resize and transcode through query parameters, so the download is the size the
+// view decodes at and in the smallest format the device can decode. Configured from JS with the cdnRewrite option of
+// BlastedImage.configure(), or from the app with setRewriter() for CDNs that need another url scheme.
+// Sizes are rounded up to buckets and the variant is part of the cache key, so views of about the same size share a download.
+public final class BlastedUrlRewriter {
+
+    public interface Rewriter {
+        // Returns the url to download, or null to keep the url. width and height are in pixels.
+        // format is "avif" or "webp". SVG and animated sources are not passed to the rewriter.
+        @Nullable
+        String rewrite(String url, int width, int height, @Nullable String format);
+    }
+
+    public static final class Variant {
+        public final String url;
+        public final String cacheKey;
+
+        Variant(String url, String cacheKey) {
+            this.url = url;
+            this.cacheKey = cacheKey;
+        }
+    }
+
+    private static final int MAX_SIZE = 4096;
+
+    // Separates the base key from the variant in cache keys. A control character, it can't be part of a url and won't
+    // be in a cacheKey, so a url fragment like #100x100 is never taken for a variant.
+    public static final char VARIANT_SEPARATOR = '\u001F';
+
+    private static volatile Rewriter customRewriter;
+    private static List<String> hosts = new ArrayList<>(); // Empty = only the custom rewriter runs
+    @Nullable private static String widthParam = "w";
+    @Nullable private static String heightParam = "h";
+    @Nullable private static String formatParam = "fm";
+    @Nullable private static volatile String preferredFormat;
+
+    private BlastedUrlRewriter() {
+    }
+
+    // For apps with their own CDN url scheme, e.g. from MainApplication.onCreate()
+    public static void setRewriter(@Nullable Rewriter rewriter) {
+        customRewriter = rewriter;
+    }
+
+    public static synchronized void configure(ReadableMap options) {
+        if (!options.hasKey("cdnRewrite")) {
+            return;
+        }
+        if (options.isNull("cdnRewrite")) {
+            hosts = new ArrayList<>();
+            return;
+        }
+
+        ReadableMap cdn = options.getMap("cdnRewrite");
+        List<String> newHosts = new ArrayList<>();
+        ReadableArray hostList = cdn.hasKey("hosts") && cdn.getType("hosts") == ReadableType.Array ? cdn.getArray("hosts") : null;
+        if (hostList != null) {
+            for (int i = 0; i < hostList.size(); i++) {
+                String host = hostList.getString(i);
+                if (host != null && !host.isEmpty()) {
+                    newHosts.add(host.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        hosts = newHosts;
+
+        // null disables a parameter, e.g. for CDNs that only resize by width
+        if (cdn.hasKey("widthParam")) {
+            widthParam = cdn.isNull("widthParam") ? null : cdn.getString("widthParam");
+        }
+        if (cdn.hasKey("heightParam")) {
+            heightParam = cdn.isNull("heightParam") ? null : cdn.getString("heightParam");
+        }
+        if (cdn.hasKey("formatParam")) {
+            formatParam = cdn.isNull("formatParam") ? null : cdn.getString("formatParam");
+        }
+    }
+
+    // Returns null when the url is not rewritten. Animated sources (marked with animated in the source, or GIF and APNG urls)
+    // are never rewritten, a CDN may return a single frame when asked for another format or size. Neither are images of
+    // unknown size: no view would ask for that variant, so a preload of it wouldn't warm the cache for any view.
+    @Nullable
+    public static Variant rewrite(String url, @Nullable String cacheKey, int width, int height, boolean animated) {
+        if (url == null || !(url.startsWith("http://") || url.startsWith("https://")) || SvgSizeBuckets.isSvgUrl(url)
+            || animated || isAnimatedUrl(url) || width <= 0 || height <= 0) {
+            return null;
+        }
+
+        width = bucket(width);
+        height = bucket(height);
+        String format = getPreferredFormat();
+
+        String rewritten = null;
+        Rewriter rewriter = customRewriter;
+        if (rewriter != null) {
+            rewritten = rewriter.rewrite(url, width, height, format);
+        }
+        if (rewritten == null) {
+            rewritten = rewriteQuery(url, width, height, format);
+        }
+        if (rewritten == null || rewritten.equals(url)) {
+            return null;
+        }
+
+        String baseKey = cacheKey != null && !cacheKey.isEmpty() ? cacheKey : BlastedGlideUrl.normalizeKey(url);
+        return new Variant(rewritten, baseKey + VARIANT_SEPARATOR + width + "x" + height + (format != null ? "." + format : ""));
+    }
+
+    // AVIF is about half the size of WebP at the same quality, but only if it can be decoded:
+    // natively from Android 12 or with the libavif decoder behind Glide's AVIF integration, if its native library loads on this ABI
+    public static String getPreferredFormat() {
+        String format = preferredFormat;
+        if (format == null) {
+            format = Build.VERSION.SDK_INT >= Build.VERSION_CODES.S || hasAvifDecoder() ? "avif" : "webp";
+            preferredFormat = format;
+        }
+        return format;
+    }
+
+    @Nullable
+    private static synchronized String rewriteQuery(String url, int width, int height, @Nullable String format) {
+        Uri uri = Uri.parse(url);
+        if (!matchesHost(uri.getHost())) {
+            return null;
+        }
+
+        Uri.Builder builder = uri.buildUpon().clearQuery();
+        for (String name : uri.getQueryParameterNames()) {
+            if (name.equals(widthParam) || name.equals(heightParam) || name.equals(formatParam)) {
+                continue; // Replaced below
+            }
+            for (String value : uri.getQueryParameters(name)) {
+                builder.appendQueryParameter(name, value);
+            }
+        }
+
+        boolean changed = false;
+        if (widthParam != null && width > 0) {
+            builder.appendQueryParameter(widthParam, String.valueOf(width));
+            changed = true;
+        }
+        if (heightParam != null && height > 0) {
+            builder.appendQueryParameter(heightParam, String.valueOf(height));
+            changed = true;
+        }
+        if (formatParam != null && format != null) {
+            builder.appendQueryParameter(formatParam, format);
+            changed = true;
+        }
+        return changed ? builder.build().toString() : null;
+    }
+
+    private static boolean matchesHost(@Nullable String host) {
+        if (host == null) {
+            return false;
+        }
+        host = host.toLowerCase(Locale.ROOT);
+        for (String configured : hosts) {
+            if (host.equals(configured) || host.endsWith("." + configured)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Steps grow with the size so a variant covers views a few pixels apart without downloading much more than needed
+    private static int bucket(int size) {
+        if (size <= 0) {
+            return 0;
+        }
+        int step = size <= 256 ? 32 : size <= 1024 ? 128 : 256;
+        return Math.min(MAX_SIZE, ((size + step - 1) / step) * step);
+    }
+
+    // Formats that are animated by their extension, animated WebP or AVIF sources must be marked in the source
+    private static boolean isAnimatedUrl(String url) {
+        String path = Uri.parse(url).getPath();
+        if (path == null) {
+            return false;
+        }
+        path = path.toLowerCase(Locale.ROOT);
+        return path.endsWith(".gif") || path.endsWith(".apng");
+    }
+
+    // Calls into the native decoder, it throws if the library isn't packaged for this ABI or failed to load
+    private static boolean hasAvifDecoder() {
+        try {
+            AvifDecoder.isAvifImage(ByteBuffer.allocateDirect(16));
+            return true;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+}
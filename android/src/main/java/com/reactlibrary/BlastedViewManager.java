@@ -1,12 +1,25 @@
 package com.xerdnu.blastedimage;
 
 import com.bumptech.glide.Glide;
-import com.facebook.react.uimanager.SimpleViewManager;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.load.resource.bitmap.DownsampleStrategy;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.RequestOptions;
+import com.bumptech.glide.request.target.Target;
+import com.facebook.react.uimanager.PixelUtil;
 import com.facebook.react.uimanager.ThemedReactContext;
 import com.facebook.react.uimanager.annotations.ReactProp;
+import com.facebook.react.bridge.Dynamic;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.UiThreadUtil;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import android.widget.ImageView;
@@ -14,7 +27,9 @@ import android.view.View;
 import android.view.ViewOutlineProvider;
 import android.view.ViewGroup;
 
+import android.graphics.Bitmap;
 import android.graphics.Outline;
+import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.graphics.Rect;
 
@@ -24,8 +39,10 @@ import android.graphics.PorterDuffColorFilter;
 
 import android.util.Log;
 
+import java.lang.ref.WeakReference;
 
-public class BlastedViewManager extends SimpleViewManager<ImageView> {
+
+public class BlastedViewManager extends BlastedViewManagerSpec<BlastedImageView> {
 
     public static final String REACT_CLASS = "BlastedImageView";
 
@@ -35,20 +52,88 @@ public class BlastedViewManager extends SimpleViewManager<ImageView> {
     }
 
     @Override
-    protected ImageView createViewInstance(ThemedReactContext reactContext) {
+    protected BlastedImageView createViewInstance(ThemedReactContext reactContext) {
         Log.d("BlastedViewManager", "BlastedImageView instance created");
-        return new ImageView(reactContext);
+        return new BlastedImageView(reactContext);
+    }
+
+    // Fabric passes source as an untyped prop (see src/BlastedImageViewNativeComponent.js)
+    public void setSource(BlastedImageView view, Dynamic source) {
+        setSource(view, source == null || source.isNull() ? null : source.asMap());
     }
 
     @ReactProp(name = "source")
-    public void setSource(ImageView view, ReadableMap source) {
+    public void setSource(BlastedImageView view, ReadableMap source) {
         if (source == null) {
             Log.e("BlastedViewManager", "Source is null");
             return;
         }
-        
-        Log.d("BlastedViewManager", "source value: " + source);
 
+        view.setSource(source);
+    }
+
+    // Start the request once all props of this update are applied so the target size and decode options are known
+    @Override
+    protected void onAfterUpdateTransaction(@NonNull BlastedImageView view) {
+        super.onAfterUpdateTransaction(view);
+
+        if (view.consumeNeedsLoad() && view.getSource() != null) {
+            loadSource(view);
+        }
+    }
+
+    // Runs on the UI thread. Only the props are read here, the source is resolved on a background thread
+    // and the request is posted back to the UI thread unless the view got a newer source in the meantime.
+    private void loadSource(final BlastedImageView view) {
+        clearRequest(view); // Release the previous image and stop its download before loading the new source
+
+        final long requestedAt = BlastedStats.now();
+        final ReadableMap source = view.getSource();
+        final int loadId = view.nextLoadId();
+        final int targetWidth = view.getTargetWidth();
+        final int targetHeight = view.getTargetHeight();
+        final float decodeScale = view.getDecodeScale();
+        final String downsample = view.getDownsample();
+        final String bitmapConfig = view.getBitmapConfig();
+
+        ThemedReactContext themedReactContext = (ThemedReactContext) view.getContext();
+        final ReactApplicationContext reactContext = (ReactApplicationContext) themedReactContext.getReactApplicationContext();
+
+        BlastedExecutors.resolver().execute(new Runnable() {
+            @Override
+            public void run() {
+                final ResolvedSource resolved = resolveSource(reactContext, source, targetWidth, targetHeight, decodeScale, downsample, bitmapConfig);
+
+                UiThreadUtil.runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!view.isCurrentLoad(loadId)) {
+                            return; // A newer source was set or the view was dropped while this one was resolving
+                        }
+
+                        if (resolved != null && resolved.model != null && !resolved.model.toString().isEmpty()) {
+                            startRequest(view, reactContext, loadId, resolved, requestedAt);
+                            view.setVisibility(View.VISIBLE);  // glideUrl is valid so show ImageView
+                        } else {
+                            view.setVisibility(View.INVISIBLE);  // Hide the ImageView
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    // Everything needed to start the Glide request, built on the resolver thread
+    private static final class ResolvedSource {
+        Object model;
+        RequestOptions options;
+        @Nullable Object thumbnailModel;
+        float thumbnailMultiplier = 0f;
+        long ttl = 0; // Seconds, 0 = configured default
+    }
+
+    @Nullable
+    private static ResolvedSource resolveSource(ReactApplicationContext reactContext, ReadableMap source, int targetWidth, int targetHeight, float decodeScale, @Nullable String downsample, @Nullable String bitmapConfig) {
         try {
             String uri = source.hasKey("uri") ? source.getString("uri") : null;
             boolean hybridAssets = source.hasKey("hybridAssets") && source.getBoolean("hybridAssets");
@@ -56,30 +141,226 @@ public class BlastedViewManager extends SimpleViewManager<ImageView> {
             ReadableMap headers = source.hasKey("headers") ? source.getMap("headers") : null;
             String cacheKey = source.hasKey("cacheKey") ? source.getString("cacheKey") : null;
 
-            ThemedReactContext themedReactContext = (ThemedReactContext) view.getContext();
-            ReactApplicationContext reactContext = (ReactApplicationContext) themedReactContext.getReactApplicationContext();
-            BlastedImageModule blastedImageModule = new BlastedImageModule(reactContext);
+            BlastedImageModule.ensureGlideInitialized(reactContext);
+            BlastedUrlResolver resolver = BlastedUrlResolver.getInstance(reactContext);
 
-            Object glideUrl = blastedImageModule.prepareGlideUrl(uri, hybridAssets, cloudUrl, false, headers, cacheKey); // false = Dont show logs when not preload
+            ResolvedSource resolved = new ResolvedSource();
+            resolved.options = buildRequestOptions(targetWidth, targetHeight, decodeScale, downsample, bitmapConfig, SvgSizeBuckets.isSvgUrl(uri));
+            resolved.model = resolver.prepareGlideUrl(uri, hybridAssets, cloudUrl, false, headers, cacheKey, // false = Dont show logs when not preload
+                Math.max(0, resolved.options.getOverrideWidth()), Math.max(0, resolved.options.getOverrideHeight()),
+                source.hasKey("animated") && source.getBoolean("animated"));
 
-            Log.d("BlastedViewManager", "glideUrl value: " + glideUrl.toString());
+            if (source.hasKey("ttl") && source.getType("ttl") == ReadableType.Number) {
+                resolved.ttl = Math.max(0, (long) source.getDouble("ttl"));
+            }
 
-            if (glideUrl != null && !glideUrl.toString().isEmpty()) {
-                Glide.with(reactContext.getCurrentActivity() != null ? reactContext.getCurrentActivity() : view.getContext())
-                    .load(glideUrl)
-                    .into(view);
-                view.setVisibility(View.VISIBLE);  // glideUrl is valid so show ImageView
-            } else {
-                view.setVisibility(View.INVISIBLE);  // Hide the ImageView
+            // Thumbnail is either a low resolution url or a fraction of the target size of the full image
+            if (source.hasKey("thumbnail") && source.getType("thumbnail") == ReadableType.String) {
+                String thumbnailUri = source.getString("thumbnail");
+                if (thumbnailUri != null && !thumbnailUri.isEmpty()) {
+                    resolved.thumbnailModel = resolver.prepareGlideUrl(thumbnailUri, false, null, false, headers, null);
+                }
+            } else if (source.hasKey("thumbnail") && source.getType("thumbnail") == ReadableType.Number) {
+                float multiplier = (float) source.getDouble("thumbnail");
+                resolved.thumbnailMultiplier = multiplier > 0f && multiplier < 1f ? multiplier : 0f;
             }
+
+            // BlurHash placeholder is shown until the thumbnail or the full image is ready
+            String blurhash = source.hasKey("blurhash") ? source.getString("blurhash") : null;
+            Bitmap placeholder = BlastedBlurHash.decode(blurhash);
+            if (placeholder != null) {
+                resolved.options = resolved.options.placeholder(new BitmapDrawable(reactContext.getResources(), placeholder));
+            }
+
+            return resolved;
         } catch (Exception e) {
             Log.e("BlastedViewManager", "Error setting glideUrl: " + e.getMessage());
-            view.setVisibility(View.INVISIBLE); // Hide the ImageView
+            return null;
         }
     }
 
+    private static void startRequest(BlastedImageView view, final ReactApplicationContext reactContext, final int loadId, final ResolvedSource resolved, long requestedAt) {
+        view.setRequestPending(true);
+        BlastedStats.requestStarted();
+
+        final long startTime = BlastedStats.now();
+        final long queueWait = startTime - requestedAt;
+
+        // into(Target) skips the scale type transformation into(ImageView) would add, apply it here
+        final RequestOptions options = applyScaleType(resolved.options, view.getScaleType());
+
+        // A preload of the same image at the same size is in flight, wait for it and load from the memory cache.
+        // Only a weak reference is kept so a dropped view isn't held until the preload finishes.
+        final WeakReference<BlastedImageView> viewRef = new WeakReference<>(view);
+        boolean attached = BlastedRequestRegistry.attach(BlastedRequestRegistry.requestKey(resolved.model, options), new BlastedRequestRegistry.Listener() {
+            @Override
+            public void onComplete(@Nullable String source, @Nullable String error, boolean retryable) {
+                UiThreadUtil.runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        BlastedImageView attachedView = viewRef.get();
+                        if (attachedView != null && attachedView.isCurrentLoad(loadId)) {
+                            loadRequest(attachedView, reactContext, loadId, resolved, options, queueWait, startTime);
+                        }
+                    }
+                });
+            }
+        });
+        if (attached) {
+            return;
+        }
+
+        // Cells that only flash by while a list flings don't load, the request starts when the fling ends
+        boolean held = BlastedScrollController.holdWhileFlinging(new Runnable() {
+            @Override
+            public void run() {
+                BlastedImageView heldView = viewRef.get();
+                if (heldView != null && heldView.isCurrentLoad(loadId)) {
+                    loadRequest(heldView, reactContext, loadId, resolved, options, queueWait, startTime);
+                }
+            }
+        });
+        if (!held) {
+            loadRequest(view, reactContext, loadId, resolved, options, queueWait, startTime);
+        }
+    }
+
+    private static void loadRequest(final BlastedImageView view, final ReactApplicationContext reactContext, final int loadId, final ResolvedSource resolved, RequestOptions options, final long queueWait, final long startTime) {
+        RequestManager requestManager = Glide.with(reactContext.getCurrentActivity() != null ? reactContext.getCurrentActivity() : view.getContext());
+        RequestBuilder<Drawable> request = requestManager
+            .load(resolved.model)
+            .apply(options)
+            .listener(new RequestListener<Drawable>() {
+                @Override
+                public boolean onLoadFailed(@Nullable GlideException e, Object model, Target<Drawable> target, boolean isFirstResource) {
+                    if (view.isCurrentLoad(loadId)) {
+                        view.setRequestPending(false);
+                    }
+                    BlastedStats.requestFailed();
+                    BlastedStats.recordFailure(model, queueWait, startTime);
+                    return false;
+                }
+
+                @Override
+                public boolean onResourceReady(Drawable resource, Object model, Target<Drawable> target, DataSource dataSource, boolean isFirstResource) {
+                    if (view.isCurrentLoad(loadId)) {
+                        view.setRequestPending(false);
+                    }
+                    BlastedStats.requestCompleted();
+                    long downloaded = BlastedStats.recordLoad(model, dataSource, resource, queueWait, startTime);
+                    BlastedCacheIndex.recordLoad(reactContext, model, dataSource, downloaded, resolved.ttl);
+                    return false;
+                }
+            });
+
+        // Same scale type transformation as the full image, so the thumbnail isn't drawn stretched or shifted before it is replaced
+        if (resolved.thumbnailModel != null) {
+            request = request.thumbnail(requestManager.load(resolved.thumbnailModel).apply(options));
+        } else if (resolved.thumbnailMultiplier > 0f) {
+            request = request.thumbnail(requestManager.load(resolved.model).apply(options).sizeMultiplier(resolved.thumbnailMultiplier));
+        }
+
+        // into(Target) skips the scale type transformation into(ImageView) would add, apply it here
+        request.into(new BlastedImageViewTarget(view));
+    }
+
+    // Unmounted or recycled by React Native, release the bitmap and cancel the request instead of waiting for the Activity to be destroyed
+    @Override
+    public void onDropViewInstance(@NonNull BlastedImageView view) {
+        super.onDropViewInstance(view);
+        clearRequest(view);
+    }
+
+    // Clearing returns the bitmap to Glide's pool once no other target uses it.
+    // The application context is used because the Activity may already be destroyed when a view is dropped.
+    private static void clearRequest(BlastedImageView view) {
+        view.nextLoadId(); // Drop any source that is still resolving
+
+        if (view.isRequestPending()) {
+            view.setRequestPending(false);
+            BlastedStats.requestCancelled();
+        }
+
+        Glide.with(view.getContext().getApplicationContext()).clear(view);
+    }
+
+    // Decode at the size the view is laid out at instead of the full source resolution.
+    // The override size is part of Glide's resource cache key so the same url at different sizes gets separate memory cache entries.
+    // SVG sizes are bucketed so icons at slightly different sizes share one memory cache entry.
+    static RequestOptions buildRequestOptions(int targetWidth, int targetHeight, float decodeScale, @Nullable String downsample, @Nullable String bitmapConfig, boolean isSvg) {
+        RequestOptions requestOptions = new RequestOptions();
+
+        if (targetWidth > 0 && targetHeight > 0) {
+            int width = Math.max(1, Math.round(PixelUtil.toPixelFromDIP(targetWidth) * decodeScale));
+            int height = Math.max(1, Math.round(PixelUtil.toPixelFromDIP(targetHeight) * decodeScale));
+            if (isSvg) {
+                width = SvgSizeBuckets.bucket(width);
+                height = SvgSizeBuckets.bucket(height);
+            }
+            requestOptions = requestOptions.override(width, height);
+        }
+
+        DownsampleStrategy downsampleStrategy = parseDownsample(downsample);
+        if (downsampleStrategy != null) {
+            requestOptions = requestOptions.downsample(downsampleStrategy);
+        }
+
+        if ("RGB_565".equals(bitmapConfig)) {
+            requestOptions = requestOptions.format(DecodeFormat.PREFER_RGB_565);
+        } else if ("ARGB_8888".equals(bitmapConfig)) {
+            requestOptions = requestOptions.format(DecodeFormat.PREFER_ARGB_8888).disallowHardwareConfig();
+        } else if ("HARDWARE".equals(bitmapConfig)) {
+            requestOptions = requestOptions.format(DecodeFormat.PREFER_ARGB_8888);
+        }
+
+        return requestOptions;
+    }
+
+    // Same transformation Glide picks from the ImageView scale type in into(view), so a preload made with these options
+    // lands under the memory cache key the view will ask for
+    static RequestOptions applyResizeMode(RequestOptions requestOptions, @Nullable String resizeMode) {
+        if ("contain".equals(resizeMode)) {
+            return requestOptions.optionalFitCenter();
+        } else if ("stretch".equals(resizeMode)) {
+            return requestOptions.optionalCenterInside();
+        } else if ("center".equals(resizeMode)) {
+            return requestOptions;
+        }
+        return requestOptions.optionalCenterCrop(); // cover
+    }
+
+    // What into(ImageView) applies for the view's scale type, see RequestBuilder.into(ImageView)
+    static RequestOptions applyScaleType(RequestOptions requestOptions, @Nullable ImageView.ScaleType scaleType) {
+        if (scaleType == ImageView.ScaleType.CENTER_CROP) {
+            return requestOptions.optionalCenterCrop();
+        } else if (scaleType == ImageView.ScaleType.FIT_CENTER) {
+            return requestOptions.optionalFitCenter();
+        } else if (scaleType == ImageView.ScaleType.FIT_XY) {
+            return requestOptions.optionalCenterInside();
+        }
+        return requestOptions;
+    }
+
+    @Nullable
+    private static DownsampleStrategy parseDownsample(@Nullable String downsample) {
+        if ("atMost".equals(downsample)) {
+            return DownsampleStrategy.AT_MOST;
+        } else if ("atLeast".equals(downsample)) {
+            return DownsampleStrategy.AT_LEAST;
+        } else if ("centerInside".equals(downsample)) {
+            return DownsampleStrategy.CENTER_INSIDE;
+        } else if ("centerOutside".equals(downsample)) {
+            return DownsampleStrategy.CENTER_OUTSIDE;
+        } else if ("fitCenter".equals(downsample)) {
+            return DownsampleStrategy.FIT_CENTER;
+        } else if ("none".equals(downsample)) {
+            return DownsampleStrategy.NONE;
+        }
+        return null; // Glide default
+    }
+
     @ReactProp(name = "resizeMode")
-    public void setResizeMode(ImageView view, String resizeMode) {
+    public void setResizeMode(BlastedImageView view, String resizeMode) {
         Log.d("BlastedImageViewManager", "resizeMode value: " + resizeMode);
 
         // If resizeMode is not specified or is invalid, set to cover
@@ -102,10 +383,11 @@ public class BlastedViewManager extends SimpleViewManager<ImageView> {
     }
 
     @ReactProp(name = "width")
-    public void setWidth(ImageView view, int width) {
+    public void setWidth(BlastedImageView view, int width) {
         if (width <= 0) {
             width = 100; // default 100
         }
+        view.setTargetSize(width, view.getTargetHeight());
         ViewGroup.LayoutParams layoutParams = view.getLayoutParams();
         if (layoutParams != null) {
             layoutParams.width = width;
@@ -114,10 +396,11 @@ public class BlastedViewManager extends SimpleViewManager<ImageView> {
     }
 
     @ReactProp(name = "height")
-    public void setHeight(ImageView view, int height) {
+    public void setHeight(BlastedImageView view, int height) {
         if (height <= 0) {
             height = 100; // default 100
         }
+        view.setTargetSize(view.getTargetWidth(), height);
         ViewGroup.LayoutParams layoutParams = view.getLayoutParams();
         if (layoutParams != null) {
             layoutParams.height = height;
@@ -126,7 +409,7 @@ public class BlastedViewManager extends SimpleViewManager<ImageView> {
     }
 
     @ReactProp(name = "tintColor")
-    public void setTintColor(ImageView view, @Nullable String color) {
+    public void setTintColor(BlastedImageView view, @Nullable String color) {
         if (color != null && !color.isEmpty()) {
             try {
                 if (!color.startsWith("#") && color.length() == 6 && color.matches("[0-9A-Fa-f]+")) {
@@ -142,5 +425,32 @@ public class BlastedViewManager extends SimpleViewManager<ImageView> {
         }
     }    
 
+    @ReactProp(name = "downsample")
+    public void setDownsample(BlastedImageView view, @Nullable String downsample) {
+        view.setDownsample(downsample);
+    }
+
+    @ReactProp(name = "bitmapConfig")
+    public void setBitmapConfig(BlastedImageView view, @Nullable String bitmapConfig) {
+        view.setBitmapConfig(bitmapConfig);
+    }
+
+    @ReactProp(name = "decodeScale", defaultFloat = 1f)
+    public void setDecodeScale(BlastedImageView view, float decodeScale) {
+        view.setDecodeScale(decodeScale);
+    }
+
+    // Animated GIF/WebP start automatically unless autoplay is false
+    @ReactProp(name = "autoplay", defaultBoolean = true)
+    public void setAutoplay(BlastedImageView view, boolean autoplay) {
+        view.setAutoplay(autoplay);
+    }
+
+    // -1 = as encoded in the file, 0 = loop forever, otherwise the number of times to play
+    @ReactProp(name = "loopCount", defaultInt = -1)
+    public void setLoopCount(BlastedImageView view, int loopCount) {
+        view.setLoopCount(loopCount);
+    }
+
     // more properties... :)
 }
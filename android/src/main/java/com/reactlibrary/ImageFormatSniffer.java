@@ -0,0 +1,151 @@
+package com.xerdnu.blastedimage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Detects the image format from the first bytes of a stream so decoders can reject data they can't handle
+// without attempting a full decode.
+public final class ImageFormatSniffer {
+
+    public enum Format { PNG, JPEG, GIF, WEBP, AVIF, HEIF, SVG, UNKNOWN }
+
+    // Large enough for an XML declaration, comments and a doctype before the <svg element
+    public static final int HEADER_SIZE = 1024;
+
+    // Same limit Glide uses when it marks a stream, a smaller one would replace Glide's mark and break rewinding for the next decoder
+    private static final int MARK_LIMIT = 5 * 1024 * 1024;
+
+    private ImageFormatSniffer() {
+    }
+
+    // Reads up to HEADER_SIZE bytes and resets the stream. Returns UNKNOWN if the stream can't be reset.
+    public static Format sniff(InputStream stream) throws IOException {
+        if (!stream.markSupported()) {
+            return Format.UNKNOWN;
+        }
+
+        byte[] header = new byte[HEADER_SIZE];
+        int length = 0;
+        stream.mark(MARK_LIMIT);
+        try {
+            int read;
+            while (length < HEADER_SIZE && (read = stream.read(header, length, HEADER_SIZE - length)) > 0) {
+                length += read;
+            }
+        } finally {
+            stream.reset();
+        }
+        return detect(header, length);
+    }
+
+    public static Format detect(byte[] header, int length) {
+        if (length >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G') {
+            return Format.PNG;
+        }
+        if (length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return Format.JPEG;
+        }
+        if (length >= 6 && header[0] == 'G' && header[1] == 'I' && header[2] == 'F' && header[3] == '8') {
+            return Format.GIF;
+        }
+        if (matches(header, length, 0, "RIFF") && matches(header, length, 8, "WEBP")) {
+            return Format.WEBP;
+        }
+        if (matches(header, length, 4, "ftyp")) {
+            if (matches(header, length, 8, "avif") || matches(header, length, 8, "avis")) {
+                return Format.AVIF;
+            }
+            if (matches(header, length, 8, "heic") || matches(header, length, 8, "heix") || matches(header, length, 8, "mif1") || matches(header, length, 8, "msf1")) {
+                return Format.HEIF;
+            }
+        }
+        if (isSvg(header, length)) {
+            return Format.SVG;
+        }
+        return Format.UNKNOWN;
+    }
+
+    // Markup whose root element is <svg, after an optional BOM, the XML declaration, comments and a doctype.
+    // An HTML error page with an inline <svg> icon has another root and is not claimed.
+    private static boolean isSvg(byte[] header, int length) {
+        length = Math.min(length, header.length);
+        int position = 0;
+        if (length >= 3 && (header[0] & 0xFF) == 0xEF && (header[1] & 0xFF) == 0xBB && (header[2] & 0xFF) == 0xBF) {
+            position = 3;
+        }
+
+        while (true) {
+            position = skipWhitespace(header, length, position);
+            if (matches(header, length, position, "<?")) {
+                position = skipPast(header, length, position, "?>");
+            } else if (matches(header, length, position, "<!--")) {
+                position = skipPast(header, length, position, "-->");
+            } else if (matches(header, length, position, "<!")) {
+                position = skipDoctype(header, length, position);
+            } else {
+                break;
+            }
+            if (position < 0) {
+                return false; // The prolog doesn't end within the header
+            }
+        }
+
+        if (!matches(header, length, position, "<svg") || position + 4 >= length) {
+            return false;
+        }
+        byte next = header[position + 4];
+        return isWhitespace(next) || next == '>' || next == '/';
+    }
+
+    private static int skipWhitespace(byte[] header, int length, int position) {
+        while (position < length && isWhitespace(header[position])) {
+            position++;
+        }
+        return position;
+    }
+
+    // Returns the position after the next end marker, -1 if there is none
+    private static int skipPast(byte[] header, int length, int position, String end) {
+        for (int i = position; i < length; i++) {
+            if (matches(header, length, i, end)) {
+                return i + end.length();
+            }
+        }
+        return -1;
+    }
+
+    // A doctype may have an internal subset in brackets, which can contain '>'
+    private static int skipDoctype(byte[] header, int length, int position) {
+        for (int i = position; i < length; i++) {
+            if (header[i] == '[') {
+                int end = skipPast(header, length, i, "]");
+                if (end < 0) {
+                    return -1;
+                }
+                end = skipWhitespace(header, length, end);
+                return end < length && header[end] == '>' ? end + 1 : -1;
+            }
+            if (header[i] == '>') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isWhitespace(byte value) {
+        return value == ' ' || value == '\t' || value == '\n' || value == '\r';
+    }
+
+    // Only the first length bytes are read, the rest of the array may hold data of a previous read
+    private static boolean matches(byte[] header, int length, int offset, String signature) {
+        if (offset + signature.length() > Math.min(length, header.length)) {
+            return false;
+        }
+        for (int i = 0; i < signature.length(); i++) {
+            if (header[offset + i] != signature.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
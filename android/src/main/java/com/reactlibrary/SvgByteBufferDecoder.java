@@ -0,0 +1,28 @@
+package com.xerdnu.blastedimage;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.ResourceDecoder;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.util.ByteBufferUtil;
+import com.caverock.androidsvg.SVG;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// SVG from ByteBuffer data (data URIs and files), reads the buffer as a stream without copying it
+public class SvgByteBufferDecoder implements ResourceDecoder<ByteBuffer, SVG> {
+
+    private final SvgDecoder decoder = new SvgDecoder();
+
+    @Override
+    public boolean handles(@NonNull ByteBuffer source, @NonNull Options options) throws IOException {
+        return decoder.handles(ByteBufferUtil.toStream(source.duplicate()), options);
+    }
+
+    @Override
+    public Resource<SVG> decode(@NonNull ByteBuffer source, int width, int height, @NonNull Options options) throws IOException {
+        return decoder.decode(ByteBufferUtil.toStream(source), width, height, options);
+    }
+}
@@ -5,15 +5,21 @@ import com.bumptech.glide.load.Options;
 import com.bumptech.glide.load.ResourceDecoder;
 import com.bumptech.glide.load.engine.Resource;
 import com.bumptech.glide.load.resource.SimpleResource;
+import com.bumptech.glide.request.target.Target;
 import com.caverock.androidsvg.SVG;
 import com.caverock.androidsvg.SVGParseException;
 import java.io.IOException;
 import java.io.InputStream;
 
 public class SvgDecoder implements ResourceDecoder<InputStream, SVG> {
+    // Rasters are capped so a missing or huge document size can't allocate an oversized bitmap
+    static final int MAX_SIZE = 2048;
+    static final int DEFAULT_SIZE = 512;
+
+    // Only claim streams that look like SVG markup, everything else goes straight to the bitmap decoders
     @Override
-    public boolean handles(@NonNull InputStream source, @NonNull Options options) {
-        return true;  // Assume all InputStreams are SVG
+    public boolean handles(@NonNull InputStream source, @NonNull Options options) throws IOException {
+        return ImageFormatSniffer.sniff(source) == ImageFormatSniffer.Format.SVG;
     }
 
     @Override
@@ -21,9 +27,39 @@ public class SvgDecoder implements ResourceDecoder<InputStream, SVG> {
         throws IOException {
         try {
             SVG svg = SVG.getFromInputStream(source);
+            fitToSize(svg, width, height);
             return new SimpleResource<>(svg);
         } catch (SVGParseException e) {
             throw new IOException("Failed to parse SVG", e);
         }
     }
+
+    // Sets the document size to the bucketed target size keeping the aspect ratio, the transcoder renders at this size
+    private static void fitToSize(SVG svg, int width, int height) {
+        float documentWidth = svg.getDocumentWidth();
+        float documentHeight = svg.getDocumentHeight();
+
+        if (documentWidth <= 0 || documentHeight <= 0) {
+            if (svg.getDocumentViewBox() != null) {
+                documentWidth = svg.getDocumentViewBox().width();
+                documentHeight = svg.getDocumentViewBox().height();
+            } else {
+                documentWidth = DEFAULT_SIZE;
+                documentHeight = DEFAULT_SIZE;
+            }
+        }
+
+        // Without a viewBox the content would not scale with the document size
+        if (svg.getDocumentViewBox() == null) {
+            svg.setDocumentViewBox(0, 0, documentWidth, documentHeight);
+        }
+
+        float targetWidth = width == Target.SIZE_ORIGINAL || width <= 0 ? documentWidth : SvgSizeBuckets.bucket(width);
+        float targetHeight = height == Target.SIZE_ORIGINAL || height <= 0 ? documentHeight : SvgSizeBuckets.bucket(height);
+        float scale = Math.min(targetWidth / documentWidth, targetHeight / documentHeight);
+        scale = Math.min(scale, MAX_SIZE / Math.max(documentWidth, documentHeight));
+
+        svg.setDocumentWidth(Math.max(1, Math.round(documentWidth * scale)));
+        svg.setDocumentHeight(Math.max(1, Math.round(documentHeight * scale)));
+    }
 }
@@ -1,7 +1,9 @@
 package com.xerdnu.blastedimage;
 
-import android.graphics.Picture;
-import android.graphics.drawable.PictureDrawable;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.BitmapDrawable;
 
 
 import androidx.annotation.NonNull;
@@ -9,19 +11,36 @@ import androidx.annotation.Nullable;
 
 import com.bumptech.glide.load.Options;
 import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.resource.bitmap.BitmapResource;
+import com.bumptech.glide.load.resource.bitmap.LazyBitmapDrawableResource;
 import com.bumptech.glide.load.resource.transcode.ResourceTranscoder;
 import com.caverock.androidsvg.SVG;
 
-public class SvgDrawableTranscoder implements ResourceTranscoder<SVG, PictureDrawable> {
+// Renders the SVG once into a bitmap at the size set by SvgDecoder. Unlike a PictureDrawable the bitmap is not replayed on
+// every draw, reports its real byte size to the memory cache and goes back to the bitmap pool when evicted.
+public class SvgDrawableTranscoder implements ResourceTranscoder<SVG, BitmapDrawable> {
+    private final Resources resources;
+    private final BitmapPool bitmapPool;
+
+    public SvgDrawableTranscoder(Resources resources, BitmapPool bitmapPool) {
+        this.resources = resources;
+        this.bitmapPool = bitmapPool;
+    }
+
     @Nullable
     @Override
-    public Resource<PictureDrawable> transcode(
+    public Resource<BitmapDrawable> transcode(
         @NonNull Resource<SVG> toTranscode,
         @NonNull Options options
     ) {
         SVG svg = toTranscode.get();
-        Picture picture = svg.renderToPicture();
-        PictureDrawable drawable = new PictureDrawable(picture);
-        return new SvgDrawableResource(drawable);
+        int width = Math.max(1, Math.round(svg.getDocumentWidth()));
+        int height = Math.max(1, Math.round(svg.getDocumentHeight()));
+
+        Bitmap bitmap = bitmapPool.get(width, height, Bitmap.Config.ARGB_8888);
+        svg.renderToCanvas(new Canvas(bitmap));
+
+        return LazyBitmapDrawableResource.obtain(resources, BitmapResource.obtain(bitmap, bitmapPool));
     }
 }
@@ -1,7 +1,7 @@
 package com.xerdnu.blastedimage;
 
 import android.content.Context;
-import android.graphics.drawable.PictureDrawable;
+import android.graphics.drawable.BitmapDrawable;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
@@ -9,10 +9,12 @@ import androidx.annotation.NonNull;
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.Registry;
 import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.model.GlideUrl;
 import com.bumptech.glide.module.AppGlideModule;
 import com.caverock.androidsvg.SVG;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 @GlideModule
 public class SvgModule extends AppGlideModule {
@@ -20,8 +22,11 @@ public class SvgModule extends AppGlideModule {
     public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
         Log.d("SvgModule", "Registering SVG support in Glide");
         registry
-            .register(SVG.class, PictureDrawable.class, new SvgDrawableTranscoder())
-            .append(InputStream.class, SVG.class, new SvgDecoder());
+            .register(SVG.class, BitmapDrawable.class, new SvgDrawableTranscoder(context.getResources(), glide.getBitmapPool()))
+            .prepend(InputStream.class, SVG.class, new SvgDecoder()) // Sniffs the header so it is cheap to try first
+            .prepend(ByteBuffer.class, SVG.class, new SvgByteBufferDecoder())
+            .append(BlastedDataUri.class, ByteBuffer.class, new BlastedDataUriLoader.Factory(glide.getArrayPool()))
+            .replace(GlideUrl.class, InputStream.class, new BlastedUrlLoader.Factory());
     }
 
     @Override
@@ -0,0 +1,37 @@
+package com.xerdnu.blastedimage;
+
+// Rounds SVG target sizes up to a small set of buckets so icons shown at slightly different sizes share one raster
+// in the memory cache and reuse bitmaps of the same size from the pool.
+public final class SvgSizeBuckets {
+
+    private SvgSizeBuckets() {
+    }
+
+    public static int bucket(int size) {
+        if (size <= 0) {
+            return size;
+        }
+        int step = size <= 64 ? 16 : size <= 256 ? 32 : 128;
+        return Math.min(SvgDecoder.MAX_SIZE, ((size + step - 1) / step) * step);
+    }
+
+    // Only urls ending in .svg are known to be SVG before they are downloaded
+    public static boolean isSvgUrl(String url) {
+        if (url == null) {
+            return false;
+        }
+        if (url.startsWith("data:")) {
+            return url.startsWith("data:image/svg+xml"); // Don't scan the payload
+        }
+        int end = url.length();
+        int query = url.indexOf('?');
+        if (query >= 0) {
+            end = query;
+        }
+        int fragment = url.indexOf('#');
+        if (fragment >= 0 && fragment < end) {
+            end = fragment;
+        }
+        return url.regionMatches(true, end - 4, ".svg", 0, 4);
+    }
+}
@@ -0,0 +1,11 @@
+package com.xerdnu.blastedimage;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+
+// New Architecture: the module implements the TurboModule spec generated from src/NativeBlastedImage.js
+abstract class BlastedImageSpec extends NativeBlastedImageSpec {
+
+    BlastedImageSpec(ReactApplicationContext context) {
+        super(context);
+    }
+}
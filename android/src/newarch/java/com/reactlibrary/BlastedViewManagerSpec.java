@@ -0,0 +1,28 @@
+package com.xerdnu.blastedimage;
+
+import android.view.View;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.uimanager.SimpleViewManager;
+import com.facebook.react.uimanager.ViewManagerDelegate;
+import com.facebook.react.viewmanagers.BlastedImageViewManagerDelegate;
+import com.facebook.react.viewmanagers.BlastedImageViewManagerInterface;
+
+// New Architecture: Fabric sets props through the delegate generated from src/BlastedImageViewNativeComponent.js
+// instead of looking up the @ReactProp setters by reflection
+public abstract class BlastedViewManagerSpec<T extends View> extends SimpleViewManager<T> implements BlastedImageViewManagerInterface<T> {
+
+    private final ViewManagerDelegate<T> delegate;
+
+    @SuppressWarnings("unchecked")
+    public BlastedViewManagerSpec() {
+        delegate = new BlastedImageViewManagerDelegate(this);
+    }
+
+    @Nullable
+    @Override
+    protected ViewManagerDelegate<T> getDelegate() {
+        return delegate;
+    }
+}
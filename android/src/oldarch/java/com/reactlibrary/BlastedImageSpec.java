@@ -0,0 +1,12 @@
+package com.xerdnu.blastedimage;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+
+// Old architecture: a bridge module, the methods are found through their @ReactMethod annotations
+abstract class BlastedImageSpec extends ReactContextBaseJavaModule {
+
+    BlastedImageSpec(ReactApplicationContext context) {
+        super(context);
+    }
+}
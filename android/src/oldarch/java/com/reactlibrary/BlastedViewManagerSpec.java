@@ -0,0 +1,9 @@
+package com.xerdnu.blastedimage;
+
+import android.view.View;
+
+import com.facebook.react.uimanager.SimpleViewManager;
+
+// Old architecture: props are set through the @ReactProp setters of BlastedViewManager
+public abstract class BlastedViewManagerSpec<T extends View> extends SimpleViewManager<T> {
+}
@@ -0,0 +1,180 @@
+package com.xerdnu.blastedimage;
+
+import static org.junit.Assert.fail;
+
+import com.facebook.react.bridge.JavaOnlyMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BlastedCircuitBreakerTest {
+
+    private static final String HOST = "cdn.example.com";
+    private static final long COOLDOWN = BlastedCircuitBreaker.DEFAULT_COOLDOWN_MS;
+
+    private long time = 1000;
+
+    @Before
+    public void setUp() {
+        BlastedCircuitBreaker.reset();
+        BlastedCircuitBreaker.setClock(new BlastedCircuitBreaker.Clock() {
+            @Override
+            public long now() {
+                return time;
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        BlastedCircuitBreaker.reset();
+    }
+
+    private static void recordFailures(String host, int times) {
+        for (int i = 0; i < times; i++) {
+            BlastedCircuitBreaker.recordFailure(host);
+        }
+    }
+
+    private static void assertClosed(String host) {
+        try {
+            BlastedCircuitBreaker.checkRequest(host);
+        } catch (BlastedCircuitBreaker.OpenException e) {
+            fail("Expected " + host + " to accept requests");
+        }
+    }
+
+    private static void assertOpen(String host) {
+        try {
+            BlastedCircuitBreaker.checkRequest(host);
+            fail("Expected " + host + " to reject requests");
+        } catch (BlastedCircuitBreaker.OpenException e) {
+            // Failed fast
+        }
+    }
+
+    private void openCircuit() {
+        recordFailures(HOST, BlastedCircuitBreaker.DEFAULT_THRESHOLD);
+        assertOpen(HOST);
+    }
+
+    @Test
+    public void staysClosedBelowTheThreshold() {
+        recordFailures(HOST, BlastedCircuitBreaker.DEFAULT_THRESHOLD - 1);
+
+        assertClosed(HOST);
+        assertClosed(HOST);
+    }
+
+    @Test
+    public void opensAtTheThreshold() {
+        recordFailures(HOST, BlastedCircuitBreaker.DEFAULT_THRESHOLD);
+
+        assertOpen(HOST);
+        time += COOLDOWN - 1;
+        assertOpen(HOST);
+    }
+
+    @Test
+    public void successResetsTheFailureCount() {
+        recordFailures(HOST, BlastedCircuitBreaker.DEFAULT_THRESHOLD - 1);
+        BlastedCircuitBreaker.recordSuccess(HOST);
+        recordFailures(HOST, BlastedCircuitBreaker.DEFAULT_THRESHOLD - 1);
+
+        assertClosed(HOST);
+    }
+
+    @Test
+    public void letsOneProbeThroughAfterTheCooldown() {
+        openCircuit();
+
+        time += COOLDOWN;
+        assertClosed(HOST); // Half open, this request is the probe
+        assertOpen(HOST); // Others wait for the probe
+    }
+
+    @Test
+    public void closesWhenTheProbeSucceeds() {
+        openCircuit();
+        time += COOLDOWN;
+        assertClosed(HOST);
+
+        BlastedCircuitBreaker.recordSuccess(HOST);
+
+        assertClosed(HOST);
+        assertClosed(HOST);
+        recordFailures(HOST, BlastedCircuitBreaker.DEFAULT_THRESHOLD - 1);
+        assertClosed(HOST);
+    }
+
+    @Test
+    public void reopensForTwiceTheCooldownWhenTheProbeFails() {
+        openCircuit();
+        time += COOLDOWN;
+        assertClosed(HOST);
+
+        BlastedCircuitBreaker.recordFailure(HOST);
+
+        assertOpen(HOST);
+        time += 2 * COOLDOWN - 1;
+        assertOpen(HOST);
+        time += 1;
+        assertClosed(HOST);
+    }
+
+    @Test
+    public void capsTheCooldown() {
+        openCircuit();
+        long cooldown = COOLDOWN;
+        for (int i = 0; i < 10; i++) {
+            time += cooldown;
+            assertClosed(HOST);
+            BlastedCircuitBreaker.recordFailure(HOST);
+            cooldown = Math.min(BlastedCircuitBreaker.MAX_COOLDOWN_MS, cooldown * 2);
+        }
+
+        time += BlastedCircuitBreaker.MAX_COOLDOWN_MS - 1;
+        assertOpen(HOST);
+        time += 1;
+        assertClosed(HOST);
+    }
+
+    @Test
+    public void letsTheNextRequestProbeWhenTheProbeIsCancelled() {
+        openCircuit();
+        time += COOLDOWN;
+        assertClosed(HOST);
+
+        BlastedCircuitBreaker.recordCancelled(HOST);
+
+        assertClosed(HOST);
+        assertOpen(HOST);
+    }
+
+    @Test
+    public void tracksHostsSeparately() {
+        openCircuit();
+
+        assertClosed("images.example.com");
+    }
+
+    @Test
+    public void zeroThresholdDisablesTheBreaker() {
+        BlastedCircuitBreaker.configure(JavaOnlyMap.of("circuitBreakerThreshold", 0));
+
+        recordFailures(HOST, 100);
+
+        assertClosed(HOST);
+    }
+
+    @Test
+    public void usesTheConfiguredThresholdAndCooldown() {
+        BlastedCircuitBreaker.configure(JavaOnlyMap.of("circuitBreakerThreshold", 2, "circuitBreakerCooldown", 5000.0));
+
+        recordFailures(HOST, 2);
+        assertOpen(HOST);
+        time += 5000;
+        assertClosed(HOST);
+    }
+}
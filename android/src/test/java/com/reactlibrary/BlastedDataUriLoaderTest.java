@@ -0,0 +1,114 @@
+package com.xerdnu.blastedimage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+public class BlastedDataUriLoaderTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static byte[] decodeBase64(String payload) {
+        byte[] out = new byte[payload.length() * 3 / 4 + 3]; // Same size the fetcher requests from the pool
+        int length = BlastedDataUriLoader.decodeBase64("data:;base64," + payload, 13, out);
+        return Arrays.copyOf(out, length);
+    }
+
+    private static byte[] decodePercent(String payload) {
+        return BlastedDataUriLoader.decodePercent("data:," + payload, 6);
+    }
+
+    @Test
+    public void decodesBase64WithAndWithoutPadding() {
+        assertArrayEquals("hello".getBytes(UTF_8), decodeBase64("aGVsbG8="));
+        assertArrayEquals("hello".getBytes(UTF_8), decodeBase64("aGVsbG8"));
+        assertArrayEquals("hell".getBytes(UTF_8), decodeBase64("aGVsbA=="));
+        assertArrayEquals("hel".getBytes(UTF_8), decodeBase64("aGVs"));
+        assertArrayEquals(new byte[0], decodeBase64(""));
+    }
+
+    @Test
+    public void decodesBothBase64Alphabets() {
+        byte[] expected = new byte[] { (byte) 0xFB, (byte) 0xFF, (byte) 0xBF };
+        assertArrayEquals(expected, decodeBase64("+/+/"));
+        assertArrayEquals(expected, decodeBase64("-_-_"));
+    }
+
+    @Test
+    public void skipsWhitespaceInBase64() {
+        assertArrayEquals("hello".getBytes(UTF_8), decodeBase64("aGVs\nbG8=\r\n"));
+        assertArrayEquals("hello".getBytes(UTF_8), decodeBase64(" aG\tVsbG8="));
+    }
+
+    @Test
+    public void stopsAtBase64Padding() {
+        assertArrayEquals("hell".getBytes(UTF_8), decodeBase64("aGVsbA==aGVsbG8="));
+    }
+
+    // A single leftover character has fewer than 8 bits and produces no byte
+    @Test
+    public void dropsIncompleteTrailingBase64Bits() {
+        assertArrayEquals("hel".getBytes(UTF_8), decodeBase64("aGVsb"));
+        assertArrayEquals(new byte[0], decodeBase64("a"));
+    }
+
+    @Test
+    public void rejectsInvalidBase64Characters() {
+        try {
+            decodeBase64("aGV*bG8=");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Invalid base64 character in data URI at 3", e.getMessage());
+        }
+        try {
+            decodeBase64("aGVsbG8%3D");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // Percent encoded padding is not base64
+        }
+    }
+
+    @Test
+    public void decodesPercentEscapes() {
+        assertArrayEquals("<svg/>".getBytes(UTF_8), decodePercent("%3Csvg%2F%3E"));
+        assertArrayEquals("<svg/>".getBytes(UTF_8), decodePercent("%3csvg%2f%3e"));
+        assertArrayEquals("<svg width=\"1\"/>".getBytes(UTF_8), decodePercent("<svg width=\"1\"/>"));
+        assertArrayEquals(new byte[0], decodePercent(""));
+    }
+
+    // Unlike form decoding, + is a literal plus sign in a URI
+    @Test
+    public void keepsPlusSigns() {
+        assertArrayEquals("a+b".getBytes(UTF_8), decodePercent("a+b"));
+        assertArrayEquals("a b".getBytes(UTF_8), decodePercent("a%20b"));
+    }
+
+    @Test
+    public void decodesEscapesToRawBytes() {
+        assertArrayEquals(new byte[] { (byte) 0x89, 'P', 'N', 'G', 0x00 }, decodePercent("%89PNG%00"));
+        assertArrayEquals("\u00e9".getBytes(UTF_8), decodePercent("%C3%A9"));
+    }
+
+    @Test
+    public void encodesUnescapedCharactersAsUtf8() {
+        assertArrayEquals("<text>\u00e9\u4e2d\ud83d\ude00</text>".getBytes(UTF_8), decodePercent("<text>\u00e9\u4e2d\ud83d\ude00</text>"));
+    }
+
+    @Test
+    public void rejectsMalformedPercentEscapes() {
+        String[] malformed = { "%", "%3", "abc%", "%G0", "%3G", "%%20" };
+        for (String payload : malformed) {
+            try {
+                decodePercent(payload);
+                fail("Expected IllegalArgumentException for " + payload);
+            } catch (IllegalArgumentException e) {
+                // Reported to Glide as a failed load
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.xerdnu.blastedimage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BlastedDataUriTest {
+
+    @Test
+    public void parsesBase64Uris() {
+        BlastedDataUri uri = BlastedDataUri.parse("data:image/png;base64,iVBORw0KGgo=");
+
+        assertNotNull(uri);
+        assertEquals("image/png", uri.getMimeType());
+        assertTrue(uri.isBase64());
+        assertEquals("data:image/png;base64,".length(), uri.getPayloadStart());
+    }
+
+    @Test
+    public void parsesPercentEncodedUris() {
+        BlastedDataUri uri = BlastedDataUri.parse("data:image/svg+xml;charset=utf-8,%3Csvg%2F%3E");
+
+        assertNotNull(uri);
+        assertEquals("image/svg+xml", uri.getMimeType());
+        assertFalse(uri.isBase64());
+    }
+
+    @Test
+    public void parsesUrisWithoutMimeType() {
+        BlastedDataUri uri = BlastedDataUri.parse("data:,hello");
+
+        assertNotNull(uri);
+        assertEquals("", uri.getMimeType());
+        assertFalse(uri.isBase64());
+        assertEquals(6, uri.getPayloadStart());
+    }
+
+    @Test
+    public void rejectsMalformedUris() {
+        assertNull(BlastedDataUri.parse(null));
+        assertNull(BlastedDataUri.parse(""));
+        assertNull(BlastedDataUri.parse("https://example.com/image.png"));
+        assertNull(BlastedDataUri.parse("DATA:image/png;base64,AAAA"));
+        assertNull(BlastedDataUri.parse("data:image/png;base64"));
+    }
+
+    @Test
+    public void cacheKeyDependsOnThePayloadOnly() {
+        BlastedDataUri first = BlastedDataUri.parse("data:image/png;base64,AAAA");
+        BlastedDataUri same = BlastedDataUri.parse("data:image/png;base64,AAAA");
+        BlastedDataUri other = BlastedDataUri.parse("data:image/png;base64,AAAB");
+
+        assertEquals(first.getCacheKey(), same.getCacheKey());
+        assertEquals(first, same);
+        assertEquals(first.hashCode(), same.hashCode());
+        assertNotEquals(first.getCacheKey(), other.getCacheKey());
+        assertNotEquals(first, other);
+    }
+
+    @Test
+    public void neverExposesThePayload() {
+        BlastedDataUri uri = BlastedDataUri.parse("data:image/png;base64,c2VjcmV0cGF5bG9hZA==");
+
+        assertFalse(uri.toString().contains("c2VjcmV0cGF5bG9hZA"));
+        assertTrue(uri.toString().startsWith("data:image/png:"));
+        assertEquals(uri.getCacheKey(), uri.toString());
+    }
+}
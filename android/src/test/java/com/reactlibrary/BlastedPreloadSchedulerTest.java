@@ -0,0 +1,145 @@
+package com.xerdnu.blastedimage;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BlastedPreloadSchedulerTest {
+
+    // Holds tasks until the test completes them
+    private static final class PendingTasks {
+        final List<Runnable> completions = new ArrayList<>();
+        int started = 0;
+
+        BlastedPreloadScheduler.Task task() {
+            return new BlastedPreloadScheduler.Task() {
+                @Override
+                public void run(Runnable onComplete) {
+                    started++;
+                    completions.add(onComplete);
+                }
+            };
+        }
+
+        void completeFirst() {
+            completions.remove(0).run();
+        }
+    }
+
+    @Test
+    public void runsSynchronousCompletionsWithoutRecursing() {
+        BlastedPreloadScheduler scheduler = new BlastedPreloadScheduler();
+        final int[] completed = { 0 };
+        BlastedPreloadScheduler.Task task = new BlastedPreloadScheduler.Task() {
+            @Override
+            public void run(Runnable onComplete) {
+                completed[0]++;
+                onComplete.run(); // A memory cache hit completes inside run()
+            }
+        };
+
+        scheduler.setMaxConcurrency(1);
+        PendingTasks blocker = new PendingTasks();
+        scheduler.enqueue(BlastedPreloadScheduler.PRIORITY_VISIBLE, blocker.task());
+        for (int i = 0; i < 100000; i++) {
+            scheduler.enqueue(BlastedPreloadScheduler.PRIORITY_VISIBLE, task);
+        }
+        blocker.completeFirst();
+
+        assertEquals(100000, completed[0]);
+    }
+
+    @Test
+    public void capsTasksInFlight() {
+        BlastedPreloadScheduler scheduler = new BlastedPreloadScheduler();
+        scheduler.setMaxConcurrency(2);
+        PendingTasks tasks = new PendingTasks();
+        for (int i = 0; i < 5; i++) {
+            scheduler.enqueue(BlastedPreloadScheduler.PRIORITY_VISIBLE, tasks.task());
+        }
+
+        assertEquals(2, tasks.started);
+        tasks.completeFirst();
+        assertEquals(3, tasks.started);
+    }
+
+    @Test
+    public void runsLowerPriorityValuesFirst() {
+        BlastedPreloadScheduler scheduler = new BlastedPreloadScheduler();
+        scheduler.setMaxConcurrency(1);
+        PendingTasks blocker = new PendingTasks();
+        scheduler.enqueue(BlastedPreloadScheduler.PRIORITY_VISIBLE, blocker.task());
+
+        final List<String> order = new ArrayList<>();
+        scheduler.enqueue(BlastedPreloadScheduler.PRIORITY_BACKGROUND, recording(order, "background"));
+        scheduler.enqueue(BlastedPreloadScheduler.PRIORITY_VISIBLE, recording(order, "visible"));
+        scheduler.enqueue(BlastedPreloadScheduler.PRIORITY_NEXT_PAGE, recording(order, "nextPage"));
+        scheduler.enqueue(BlastedPreloadScheduler.PRIORITY_VISIBLE, recording(order, "visible2"));
+        blocker.completeFirst();
+
+        assertEquals(Arrays.asList("visible", "visible2", "nextPage", "background"), order);
+    }
+
+    @Test
+    public void limitsOneCallerWithoutChangingTheSchedulerLimit() {
+        BlastedPreloadScheduler scheduler = new BlastedPreloadScheduler();
+        scheduler.setMaxConcurrency(4);
+        BlastedPreloadScheduler.Limit limit = new BlastedPreloadScheduler.Limit(1);
+        PendingTasks limited = new PendingTasks();
+        PendingTasks other = new PendingTasks();
+
+        for (int i = 0; i < 3; i++) {
+            scheduler.enqueue(BlastedPreloadScheduler.PRIORITY_VISIBLE, limit, limited.task());
+        }
+        for (int i = 0; i < 3; i++) {
+            scheduler.enqueue(BlastedPreloadScheduler.PRIORITY_VISIBLE, null, other.task());
+        }
+
+        assertEquals(1, limited.started);
+        assertEquals(3, other.started);
+
+        limited.completeFirst();
+        assertEquals(2, limited.started);
+        limited.completeFirst();
+        limited.completeFirst();
+        assertEquals(3, limited.started);
+    }
+
+    // Completing twice or throwing must not leak a slot of the caller's limit
+    @Test
+    public void releasesTheLimitOnceAndOnFailure() {
+        BlastedPreloadScheduler scheduler = new BlastedPreloadScheduler();
+        BlastedPreloadScheduler.Limit limit = new BlastedPreloadScheduler.Limit(1);
+        scheduler.enqueue(BlastedPreloadScheduler.PRIORITY_VISIBLE, limit, new BlastedPreloadScheduler.Task() {
+            @Override
+            public void run(Runnable onComplete) {
+                throw new IllegalStateException();
+            }
+        });
+
+        PendingTasks tasks = new PendingTasks();
+        scheduler.enqueue(BlastedPreloadScheduler.PRIORITY_VISIBLE, limit, tasks.task());
+        scheduler.enqueue(BlastedPreloadScheduler.PRIORITY_VISIBLE, limit, tasks.task());
+        assertEquals(1, tasks.started);
+
+        Runnable onComplete = tasks.completions.get(0);
+        onComplete.run();
+        onComplete.run();
+        assertEquals(2, tasks.started);
+        assertEquals(2, tasks.completions.size());
+    }
+
+    private static BlastedPreloadScheduler.Task recording(final List<String> order, final String name) {
+        return new BlastedPreloadScheduler.Task() {
+            @Override
+            public void run(Runnable onComplete) {
+                order.add(name);
+                onComplete.run();
+            }
+        };
+    }
+}
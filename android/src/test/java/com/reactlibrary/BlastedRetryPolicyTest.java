@@ -0,0 +1,114 @@
+package com.xerdnu.blastedimage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.bumptech.glide.load.HttpException;
+import com.bumptech.glide.load.engine.GlideException;
+import com.facebook.react.bridge.JavaOnlyMap;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class BlastedRetryPolicyTest {
+
+    private static final int SAMPLES = 2000;
+
+    @After
+    public void restoreDefaults() {
+        BlastedRetryPolicy.configure(JavaOnlyMap.of(
+            "networkRetries", BlastedRetryPolicy.DEFAULT_RETRIES,
+            "retryBaseDelay", (double) BlastedRetryPolicy.DEFAULT_BASE_DELAY_MS));
+    }
+
+    // Full jitter: every delay is between 0 and the exponential step, and the whole range is used
+    private static void assertJitteredUpTo(int attempt, long step) {
+        long max = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            long delay = BlastedRetryPolicy.delayMs(attempt);
+            assertTrue("delay " + delay + " for attempt " + attempt, delay >= 0 && delay <= step);
+            max = Math.max(max, delay);
+        }
+        assertTrue("max delay " + max + " for attempt " + attempt, max > step / 2);
+    }
+
+    @Test
+    public void doublesTheStepForEachAttempt() {
+        assertJitteredUpTo(1, 500);
+        assertJitteredUpTo(2, 1000);
+        assertJitteredUpTo(3, 2000);
+        assertJitteredUpTo(4, 4000);
+        assertJitteredUpTo(5, 8000);
+    }
+
+    @Test
+    public void capsTheStep() {
+        assertJitteredUpTo(6, BlastedRetryPolicy.MAX_DELAY_MS);
+        assertJitteredUpTo(30, BlastedRetryPolicy.MAX_DELAY_MS);
+        assertJitteredUpTo(Integer.MAX_VALUE, BlastedRetryPolicy.MAX_DELAY_MS);
+    }
+
+    @Test
+    public void usesTheConfiguredBaseDelay() {
+        BlastedRetryPolicy.configure(JavaOnlyMap.of("networkRetries", 5, "retryBaseDelay", 100.0));
+
+        assertEquals(5, BlastedRetryPolicy.getRetries());
+        assertJitteredUpTo(1, 100);
+        assertJitteredUpTo(3, 400);
+    }
+
+    @Test
+    public void retriesImmediatelyWithoutBaseDelay() {
+        BlastedRetryPolicy.configure(JavaOnlyMap.of("retryBaseDelay", 0.0));
+
+        assertEquals(0, BlastedRetryPolicy.delayMs(1));
+        assertEquals(0, BlastedRetryPolicy.delayMs(10));
+    }
+
+    @Test
+    public void clampsNegativeConfiguration() {
+        BlastedRetryPolicy.configure(JavaOnlyMap.of("networkRetries", -1, "retryBaseDelay", -100.0));
+
+        assertEquals(0, BlastedRetryPolicy.getRetries());
+        assertEquals(0, BlastedRetryPolicy.delayMs(1));
+    }
+
+    @Test
+    public void retriesTransientStatusCodes() {
+        for (int status : new int[] { 408, 429, 500, 502, 503, 504, 599 }) {
+            assertTrue("status " + status, BlastedRetryPolicy.isRetryableStatus(status));
+        }
+        for (int status : new int[] { 200, 301, 400, 401, 403, 404, 410, 501, 505 }) {
+            assertFalse("status " + status, BlastedRetryPolicy.isRetryableStatus(status));
+        }
+    }
+
+    @Test
+    public void retriesConnectionErrorsOnly() {
+        assertTrue(BlastedRetryPolicy.isRetryable(new SocketTimeoutException()));
+        assertTrue(BlastedRetryPolicy.isRetryable(new IOException("Connection reset")));
+        assertTrue(BlastedRetryPolicy.isRetryable(new HttpException("Service Unavailable", 503)));
+
+        assertFalse(BlastedRetryPolicy.isRetryable(new HttpException("Not Found", 404)));
+        assertFalse(BlastedRetryPolicy.isRetryable(new IOException("Canceled")));
+        assertFalse(BlastedRetryPolicy.isRetryable(new BlastedCircuitBreaker.OpenException("example.com")));
+        assertFalse(BlastedRetryPolicy.isRetryable(new IllegalStateException()));
+        assertFalse(BlastedRetryPolicy.isRetryable((Throwable) null));
+    }
+
+    @Test
+    public void retriesGlideFailuresWithATransientCause() {
+        GlideException transientCause = new GlideException("Failed", Arrays.<Throwable>asList(new HttpException("Not Found", 404), new SocketTimeoutException()));
+        GlideException permanent = new GlideException("Failed", Collections.<Throwable>singletonList(new HttpException("Not Found", 404)));
+
+        assertTrue(BlastedRetryPolicy.isRetryable(transientCause));
+        assertFalse(BlastedRetryPolicy.isRetryable(permanent));
+        assertFalse(BlastedRetryPolicy.isRetryable((GlideException) null)); // Unknown failure
+    }
+}
@@ -0,0 +1,152 @@
+package com.xerdnu.blastedimage;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+public class ImageFormatSnifferTest {
+
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+
+    private static ImageFormatSniffer.Format detect(byte[] header) {
+        return ImageFormatSniffer.detect(header, header.length);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(ASCII);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+    @Test
+    public void detectsBitmapFormats() {
+        assertEquals(ImageFormatSniffer.Format.PNG, detect(bytes(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)));
+        assertEquals(ImageFormatSniffer.Format.JPEG, detect(bytes(0xFF, 0xD8, 0xFF, 0xE0)));
+        assertEquals(ImageFormatSniffer.Format.GIF, detect(ascii("GIF89a")));
+        assertEquals(ImageFormatSniffer.Format.GIF, detect(ascii("GIF87a")));
+        assertEquals(ImageFormatSniffer.Format.WEBP, detect(ascii("RIFF\0\0\0\0WEBPVP8 ")));
+    }
+
+    @Test
+    public void detectsIsoMediaBrands() {
+        assertEquals(ImageFormatSniffer.Format.AVIF, detect(ascii("\0\0\0 ftypavif")));
+        assertEquals(ImageFormatSniffer.Format.AVIF, detect(ascii("\0\0\0 ftypavis")));
+        assertEquals(ImageFormatSniffer.Format.HEIF, detect(ascii("\0\0\0\u0018ftypheic")));
+        assertEquals(ImageFormatSniffer.Format.HEIF, detect(ascii("\0\0\0\u0018ftypmif1")));
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, detect(ascii("\0\0\0\u0018ftypmp42")));
+    }
+
+    @Test
+    public void detectsSvg() {
+        assertEquals(ImageFormatSniffer.Format.SVG, detect(ascii("<svg xmlns=\"http://www.w3.org/2000/svg\"/>")));
+        assertEquals(ImageFormatSniffer.Format.SVG, detect(ascii("<?xml version=\"1.0\"?>\n<!-- icon -->\n<svg/>")));
+        assertEquals(ImageFormatSniffer.Format.SVG, detect(ascii(" \r\n\t<svg/>")));
+        assertEquals(ImageFormatSniffer.Format.SVG, detect(ascii("<svg>")));
+        assertEquals(ImageFormatSniffer.Format.SVG, detect(ascii("<!DOCTYPE svg PUBLIC \"-//W3C//DTD SVG 1.1//EN\" \"http://www.w3.org/Graphics/SVG/1.1/DTD/svg11.dtd\">\n<svg\nwidth=\"1\"/>")));
+        assertEquals(ImageFormatSniffer.Format.SVG, detect(ascii("<!DOCTYPE svg [ <!ENTITY a \"<b>\"> ] >\n<svg/>")));
+        assertEquals(ImageFormatSniffer.Format.SVG, detect(ascii("<!-- <html> -->\n<?xml-stylesheet href=\"a.css\"?><svg/>")));
+
+        byte[] svg = ascii("<svg/>");
+        byte[] withBom = new byte[svg.length + 3];
+        withBom[0] = (byte) 0xEF;
+        withBom[1] = (byte) 0xBB;
+        withBom[2] = (byte) 0xBF;
+        System.arraycopy(svg, 0, withBom, 3, svg.length);
+        assertEquals(ImageFormatSniffer.Format.SVG, detect(withBom));
+    }
+
+    @Test
+    public void rejectsMarkupWithoutSvgElement() {
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, detect(ascii("<!DOCTYPE html><html></html>")));
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, detect(ascii("not markup <svg/>")));
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, detect(ascii("<svgfont/>")));
+    }
+
+    // An error page with an inline icon must go to the other decoders and fail there, not inside the SVG parser
+    @Test
+    public void rejectsMarkupWithAnotherRootElement() {
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, detect(ascii("<!DOCTYPE html><html><body><svg><path/></svg>Not Found</body></html>")));
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, detect(ascii("<?xml version=\"1.0\"?><feed><svg/></feed>")));
+    }
+
+    // Nothing is claimed if the prolog doesn't end in the header
+    @Test
+    public void rejectsUnterminatedProlog() {
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, detect(ascii("<?xml version=\"1.0\"")));
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, detect(ascii("<!-- <svg/>")));
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, detect(ascii("<!DOCTYPE svg [ <svg/>")));
+    }
+
+    @Test
+    public void returnsUnknownForEmptyAndUnknownInput() {
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, detect(new byte[0]));
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, detect(ascii("   ")));
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, detect(bytes(0x00, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08, 0x09, 0x0A, 0x0B)));
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, ImageFormatSniffer.detect(new byte[16], 0));
+    }
+
+    @Test
+    public void returnsUnknownForTruncatedHeaders() {
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, detect(bytes(0x89, 'P', 'N', 'G')));
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, detect(bytes(0xFF, 0xD8)));
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, detect(ascii("GIF8")));
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, detect(ascii("RIFF\0\0\0\0WEB")));
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, detect(ascii("\0\0\0 ftypav")));
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, detect(ascii("<sv")));
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, detect(ascii("<svg")));
+    }
+
+    // Bytes past length are left over from a previous read and must not be matched
+    @Test
+    public void ignoresBytesPastLength() {
+        byte[] webp = ascii("RIFF\0\0\0\0WEBPVP8 ");
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, ImageFormatSniffer.detect(webp, 10));
+
+        byte[] svg = ascii("<svg/>");
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, ImageFormatSniffer.detect(svg, 2));
+    }
+
+    @Test
+    public void sniffResetsTheStream() throws IOException {
+        byte[] png = Arrays.copyOf(bytes(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A), 2048);
+        InputStream stream = new ByteArrayInputStream(png);
+
+        assertEquals(ImageFormatSniffer.Format.PNG, ImageFormatSniffer.sniff(stream));
+        assertEquals(0x89, stream.read());
+        assertEquals(png.length - 1, stream.available());
+    }
+
+    @Test
+    public void sniffReadsShortStreams() throws IOException {
+        InputStream stream = new ByteArrayInputStream(ascii("GIF89a"));
+
+        assertEquals(ImageFormatSniffer.Format.GIF, ImageFormatSniffer.sniff(stream));
+        assertEquals(6, stream.available());
+    }
+
+    @Test
+    public void sniffReturnsUnknownWhenTheStreamCantBeReset() throws IOException {
+        InputStream stream = new FilterInputStream(new ByteArrayInputStream(ascii("GIF89a"))) {
+            @Override
+            public boolean markSupported() {
+                return false;
+            }
+        };
+
+        assertEquals(ImageFormatSniffer.Format.UNKNOWN, ImageFormatSniffer.sniff(stream));
+        assertEquals(6, stream.available());
+    }
+}
@@ -0,0 +1,66 @@
+package com.xerdnu.blastedimage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.bumptech.glide.load.Options;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+// Only handles() runs on the JVM, parsing needs the Android XML parser
+public class SvgByteBufferDecoderTest {
+
+    private final SvgByteBufferDecoder decoder = new SvgByteBufferDecoder();
+    private final Options options = new Options();
+
+    private static ByteBuffer buffer(String value) {
+        return ByteBuffer.wrap(value.getBytes(Charset.forName("UTF-8")));
+    }
+
+    @Test
+    public void handlesSvgMarkup() throws IOException {
+        assertTrue(decoder.handles(buffer("<svg xmlns=\"http://www.w3.org/2000/svg\"/>"), options));
+        assertTrue(decoder.handles(buffer("<?xml version=\"1.0\"?><svg/>"), options));
+    }
+
+    @Test
+    public void rejectsOtherData() throws IOException {
+        assertFalse(decoder.handles(buffer("GIF89a"), options));
+        assertFalse(decoder.handles(buffer("<html></html>"), options));
+        assertFalse(decoder.handles(ByteBuffer.wrap(new byte[] { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF }), options));
+    }
+
+    @Test
+    public void rejectsEmptyAndTruncatedData() throws IOException {
+        assertFalse(decoder.handles(ByteBuffer.allocate(0), options));
+        assertFalse(decoder.handles(buffer("<sv"), options));
+    }
+
+    // The next decoder reads the same buffer, checking it must not move its position
+    @Test
+    public void leavesTheBufferPositionUnchanged() throws IOException {
+        ByteBuffer source = buffer("  <svg/>");
+        source.position(2);
+
+        assertTrue(decoder.handles(source, options));
+        assertEquals(2, source.position());
+        assertEquals(6, source.remaining());
+    }
+
+    // Only the remaining bytes are sniffed, e.g. a data URI payload in a larger pooled array
+    @Test
+    public void sniffsFromTheBufferPosition() throws IOException {
+        ByteBuffer source = buffer("GIF89a<svg/>");
+        source.position(6);
+        assertTrue(decoder.handles(source, options));
+
+        ByteBuffer limited = buffer("<svg/>");
+        limited.limit(3);
+        assertFalse(decoder.handles(limited, options));
+    }
+}
@@ -0,0 +1,58 @@
+package com.xerdnu.blastedimage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SvgSizeBucketsTest {
+
+    @Test
+    public void roundsUpToTheStepOfTheSizeRange() {
+        assertEquals(16, SvgSizeBuckets.bucket(1));
+        assertEquals(16, SvgSizeBuckets.bucket(16));
+        assertEquals(32, SvgSizeBuckets.bucket(17));
+        assertEquals(64, SvgSizeBuckets.bucket(64));
+        assertEquals(96, SvgSizeBuckets.bucket(65));
+        assertEquals(256, SvgSizeBuckets.bucket(256));
+        assertEquals(384, SvgSizeBuckets.bucket(257));
+    }
+
+    @Test
+    public void capsAtTheMaximumRasterSize() {
+        assertEquals(SvgDecoder.MAX_SIZE, SvgSizeBuckets.bucket(SvgDecoder.MAX_SIZE));
+        assertEquals(SvgDecoder.MAX_SIZE, SvgSizeBuckets.bucket(SvgDecoder.MAX_SIZE + 1));
+        assertEquals(SvgDecoder.MAX_SIZE, SvgSizeBuckets.bucket(100000));
+    }
+
+    // Target.SIZE_ORIGINAL is Integer.MIN_VALUE, unknown sizes must pass through unchanged
+    @Test
+    public void keepsUnknownSizes() {
+        assertEquals(0, SvgSizeBuckets.bucket(0));
+        assertEquals(-1, SvgSizeBuckets.bucket(-1));
+        assertEquals(Integer.MIN_VALUE, SvgSizeBuckets.bucket(Integer.MIN_VALUE));
+    }
+
+    @Test
+    public void matchesSvgUrls() {
+        assertTrue(SvgSizeBuckets.isSvgUrl("https://example.com/icon.svg"));
+        assertTrue(SvgSizeBuckets.isSvgUrl("https://example.com/icon.SVG"));
+        assertTrue(SvgSizeBuckets.isSvgUrl("https://example.com/icon.svg?v=2"));
+        assertTrue(SvgSizeBuckets.isSvgUrl("https://example.com/icon.svg#layer"));
+        assertTrue(SvgSizeBuckets.isSvgUrl("https://example.com/icon.svg?v=2#layer"));
+        assertTrue(SvgSizeBuckets.isSvgUrl("data:image/svg+xml;base64,PHN2Zy8+"));
+    }
+
+    @Test
+    public void rejectsOtherUrls() {
+        assertFalse(SvgSizeBuckets.isSvgUrl(null));
+        assertFalse(SvgSizeBuckets.isSvgUrl(""));
+        assertFalse(SvgSizeBuckets.isSvgUrl("svg"));
+        assertFalse(SvgSizeBuckets.isSvgUrl("https://example.com/icon.png"));
+        assertFalse(SvgSizeBuckets.isSvgUrl("https://example.com/icon.png?name=a.svg"));
+        assertFalse(SvgSizeBuckets.isSvgUrl("https://example.com/icon.png#a.svg"));
+        assertFalse(SvgSizeBuckets.isSvgUrl("https://example.com/icon.svgz"));
+        assertFalse(SvgSizeBuckets.isSvgUrl("data:image/png;base64,.svg"));
+    }
+}
@@ -0,0 +1,44 @@
+// Compares a benchmark result with a baseline and exits with 1 if a benchmark got slower or allocates more.
+// Usage: node compare.js <baseline.json> <result.json> [maxSlowdown]
+// maxSlowdown is the allowed increase of the median time, 0.1 (10%) by default.
+const fs = require('fs');
+
+const [baselinePath, resultPath, maxSlowdownArg] = process.argv.slice(2);
+if (!baselinePath || !resultPath) {
+	console.error('Usage: node compare.js <baseline.json> <result.json> [maxSlowdown]');
+	process.exit(2);
+}
+const maxSlowdown = maxSlowdownArg !== undefined ? parseFloat(maxSlowdownArg) : 0.1;
+
+const readBenchmarks = (path) => {
+	const benchmarks = {};
+	for (const benchmark of JSON.parse(fs.readFileSync(path, 'utf8')).benchmarks) {
+		benchmarks[`${benchmark.className}.${benchmark.name}`] = benchmark.metrics;
+	}
+	return benchmarks;
+};
+
+const baseline = readBenchmarks(baselinePath);
+const result = readBenchmarks(resultPath);
+let regressions = 0;
+
+for (const name of Object.keys(result).sort()) {
+	const before = baseline[name];
+	const after = result[name];
+	if (!before) {
+		console.log(`NEW   ${name}: ${after.timeNs.median} ns`);
+		continue;
+	}
+
+	const change = after.timeNs.median / before.timeNs.median - 1;
+	const allocationsBefore = before.allocationCount ? before.allocationCount.median : 0;
+	const allocationsAfter = after.allocationCount ? after.allocationCount.median : 0;
+	const regressed = change > maxSlowdown || allocationsAfter > allocationsBefore;
+	if (regressed) {
+		regressions++;
+	}
+	console.log(`${regressed ? 'SLOWER' : 'OK    '} ${name}: ${before.timeNs.median} -> ${after.timeNs.median} ns `
+		+ `(${(change * 100).toFixed(1)}%), allocations ${allocationsBefore} -> ${allocationsAfter}`);
+}
+
+process.exit(regressions > 0 ? 1 : 0);
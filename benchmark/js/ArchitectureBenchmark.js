@@ -0,0 +1,148 @@
+// Measures a 1,000 image list on the architecture the app was built with. Run it once with newArchEnabled=false and
+// once with newArchEnabled=true (release builds, same device) and compare the two results logged to the console.
+//
+// <ArchitectureBenchmark baseUrl="http://192.168.1.10:8080/images" />
+//
+// baseUrl must serve <baseUrl>/<index>.jpg for 0 to 999. Results (times in ms):
+// - bindMedian, bindP95: from the first render of an item to its onLoad
+// - jsBlocked: time the JS thread missed frames by while the list loaded and scrolled to the end
+// - isCachedSync: 1,000 isCachedSync calls, all of it on the JS thread
+// - isCachedCall, isCachedResolved: one isCached call for the 1,000 keys, until it returned and until it resolved
+import React, { useEffect, useRef } from 'react';
+import { FlatList, Platform } from 'react-native';
+import BlastedImage from 'react-native-blasted-image';
+
+const COUNT = 1000;
+const COLUMNS = 4;
+const ITEM_SIZE = 90;
+const TIMEOUT = 120000;
+
+const percentile = (values, p) => {
+	const sorted = [...values].sort((a, b) => a - b);
+	return sorted.length > 0 ? sorted[Math.min(sorted.length - 1, Math.floor(sorted.length * p))] : null;
+};
+
+const round = (value) => (value === null ? null : Math.round(value * 100) / 100);
+
+const measureCacheQueries = async (keys) => {
+	let start = performance.now();
+	for (const key of keys) {
+		BlastedImage.isCachedSync(key);
+	}
+	const isCachedSync = performance.now() - start;
+
+	start = performance.now();
+	const pending = BlastedImage.isCached(keys);
+	const isCachedCall = performance.now() - start;
+	await pending;
+	const isCachedResolved = performance.now() - start;
+
+	return { isCachedSync, isCachedCall, isCachedResolved };
+};
+
+const Item = ({ uri, index, mountedAt, onLoaded }) => {
+	if (mountedAt.current[index] === undefined) {
+		mountedAt.current[index] = performance.now();
+	}
+	return (
+		<BlastedImage
+			source={{ uri }}
+			width={ITEM_SIZE}
+			height={ITEM_SIZE}
+			onLoad={() => onLoaded(index)}
+			onError={() => onLoaded(index)}
+		/>
+	);
+};
+
+const ArchitectureBenchmark = ({ baseUrl, onDone = (result) => console.log('[BlastedImage benchmark]', JSON.stringify(result)) }) => {
+	const data = useRef(Array.from({ length: COUNT }, (_, index) => `${baseUrl}/${index}.jpg`)).current;
+	const mountedAt = useRef([]);
+	const loadedAt = useRef([]);
+	const loaded = useRef(0);
+	const listRef = useRef(null);
+
+	const onLoaded = (index) => {
+		if (loadedAt.current[index] === undefined) {
+			loadedAt.current[index] = performance.now();
+			loaded.current++;
+		}
+	};
+
+	useEffect(() => {
+		let frame = null;
+		let step = null;
+		let cancelled = false;
+
+		const run = async () => {
+			await BlastedImage.clearAllCaches(); // Every run downloads the same images
+
+			let jsBlocked = 0;
+			let lastFrame = performance.now();
+			const onFrame = (now) => {
+				jsBlocked += Math.max(0, now - lastFrame - 1000 / 60);
+				lastFrame = now;
+				frame = requestAnimationFrame(onFrame);
+			};
+			frame = requestAnimationFrame(onFrame);
+
+			// Scrolls one screen of rows at a time until every item has loaded
+			const started = performance.now();
+			let offset = 0;
+			await new Promise((resolve) => {
+				step = setInterval(() => {
+					offset += ITEM_SIZE * 8;
+					listRef.current?.scrollToOffset({ offset, animated: false });
+					if (loaded.current >= COUNT || performance.now() - started > TIMEOUT) {
+						clearInterval(step);
+						resolve();
+					}
+				}, 50);
+			});
+			cancelAnimationFrame(frame);
+
+			const bindTimes = [];
+			for (let index = 0; index < COUNT; index++) {
+				if (loadedAt.current[index] !== undefined && mountedAt.current[index] !== undefined) {
+					bindTimes.push(loadedAt.current[index] - mountedAt.current[index]);
+				}
+			}
+			const queries = await measureCacheQueries(data);
+			if (cancelled) {
+				return;
+			}
+
+			onDone({
+				architecture: global.nativeFabricUIManager ? 'new' : 'old',
+				platform: Platform.OS,
+				loaded: loaded.current,
+				bindMedian: round(percentile(bindTimes, 0.5)),
+				bindP95: round(percentile(bindTimes, 0.95)),
+				jsBlocked: round(jsBlocked),
+				isCachedSync: round(queries.isCachedSync),
+				isCachedCall: round(queries.isCachedCall),
+				isCachedResolved: round(queries.isCachedResolved),
+			});
+		};
+
+		run();
+		return () => {
+			cancelled = true;
+			clearInterval(step);
+			cancelAnimationFrame(frame);
+		};
+	}, []);
+
+	return (
+		<FlatList
+			ref={listRef}
+			data={data}
+			numColumns={COLUMNS}
+			keyExtractor={(uri) => uri}
+			getItemLayout={(_, row) => ({ length: ITEM_SIZE, offset: ITEM_SIZE * row, index: row })} // Rows, with numColumns
+			renderItem={({ item, index }) => <Item uri={item} index={index} mountedAt={mountedAt} onLoaded={onLoaded} />}
+		/>
+	);
+};
+
+export default ArchitectureBenchmark;
@@ -0,0 +1,22 @@
+package com.xerdnu.blastedimage;
+
+import android.app.Activity;
+import android.os.Bundle;
+import android.widget.FrameLayout;
+
+// Hosts the views of ViewBindBenchmark so they are laid out and drawn like in an app
+public class BenchmarkActivity extends Activity {
+
+    private FrameLayout container;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        container = new FrameLayout(this);
+        setContentView(container);
+    }
+
+    public FrameLayout getContainer() {
+        return container;
+    }
+}
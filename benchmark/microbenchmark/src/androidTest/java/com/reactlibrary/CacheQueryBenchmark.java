@@ -0,0 +1,93 @@
+package com.xerdnu.blastedimage;
+
+import android.content.Context;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.PromiseImpl;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.soloader.SoLoader;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Native cost of checking a 1,000 image list: isCachedSync for every item, which blocks the JS thread for the whole
+// call, against one isCached call answered from the cache query thread. benchmark/js/ArchitectureBenchmark.js measures
+// the same list from JS on the old and the New Architecture.
+@RunWith(AndroidJUnit4.class)
+public class CacheQueryBenchmark {
+
+    private static final int KEYS = 1000;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private BlastedImageModule module;
+    private String[] keys;
+    private JavaOnlyArray keyArray;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        SoLoader.init(context, false); // The promise result is a native map
+        ReactApplicationContext reactContext = new ReactApplicationContext(context);
+        BlastedImageModule.ensureGlideInitialized(reactContext);
+        module = new BlastedImageModule(reactContext);
+
+        BlastedCacheIndex cacheIndex = BlastedCacheIndex.getInstance(context);
+        keys = new String[KEYS];
+        keyArray = new JavaOnlyArray();
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "https://cdn.example.com/list/" + i + ".jpg";
+            keyArray.pushString(keys[i]);
+            if (i % 2 == 0) {
+                cacheIndex.touch(keys[i], true, 32 * 1024, 0); // Half of the list was seen before
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        BlastedCacheIndex.getInstance(ApplicationProvider.getApplicationContext()).clear();
+    }
+
+    @Test
+    public void isCachedSyncPerItem() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (String key : keys) {
+                module.isCachedSync(key);
+            }
+        }
+    }
+
+    // Includes the wait for the promise, the JS thread itself is only busy for the call
+    @Test
+    public void isCachedBatch() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            final CountDownLatch resolved = new CountDownLatch(1);
+            Callback done = new Callback() {
+                @Override
+                public void invoke(Object... args) {
+                    resolved.countDown();
+                }
+            };
+            module.isCached(keyArray, new PromiseImpl(done, done));
+            if (!resolved.await(30, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("isCached did not resolve within 30 seconds");
+            }
+        }
+    }
+}
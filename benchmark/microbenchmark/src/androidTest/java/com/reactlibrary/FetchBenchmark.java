@@ -0,0 +1,76 @@
+package com.xerdnu.blastedimage;
+
+import android.content.Context;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.request.FutureTarget;
+import com.facebook.react.bridge.ReactApplicationContext;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Download throughput of the pooled OkHttp client for a burst of concurrent preloads against the local stub.
+// Every iteration uses new urls so each request goes to the network and is written to the disk cache.
+@RunWith(AndroidJUnit4.class)
+public class FetchBenchmark {
+
+    private static final int CONCURRENT_PRELOADS = 128;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private Context context;
+    private StubServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        context = ApplicationProvider.getApplicationContext();
+        BlastedImageModule.ensureGlideInitialized(new ReactApplicationContext(context));
+        server = StubServer.start(512);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        Glide.get(context).clearDiskCache();
+    }
+
+    @Test
+    public void concurrentPreloads() throws Exception {
+        RequestManager requestManager = Glide.with(context);
+        List<FutureTarget<File>> targets = new ArrayList<>(CONCURRENT_PRELOADS);
+        int round = 0;
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (int i = 0; i < CONCURRENT_PRELOADS; i++) {
+                targets.add(requestManager.downloadOnly().load(new GlideUrl(server.url("/fetch/" + round + "/" + i + ".jpg"))).submit());
+            }
+            for (FutureTarget<File> target : targets) {
+                target.get(30, TimeUnit.SECONDS);
+            }
+
+            state.pauseTiming();
+            for (FutureTarget<File> target : targets) {
+                requestManager.clear(target);
+            }
+            targets.clear();
+            round++;
+            state.resumeTiming();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.xerdnu.blastedimage;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.bumptech.glide.load.Options;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+// SvgDecoder.handles() is asked for every stream Glide decodes, so its cost is paid by all formats and not only SVGs
+@RunWith(AndroidJUnit4.class)
+public class SniffBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private byte[][] corpus;
+    private SvgDecoder decoder;
+    private Options options;
+
+    @Before
+    public void setUp() {
+        byte[] gif = new byte[] { 'G', 'I', 'F', '8', '9', 'a', 1, 0, 1, 0, 0, 0, 0, ';' };
+        byte[] svg = ("<?xml version=\"1.0\"?>\n<!-- icon -->\n<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"24\" height=\"24\">"
+            + "<rect width=\"24\" height=\"24\"/></svg>").getBytes(StandardCharsets.UTF_8);
+        corpus = new byte[][] {
+            compress(Bitmap.CompressFormat.JPEG),
+            compress(Bitmap.CompressFormat.PNG),
+            compress(Bitmap.CompressFormat.WEBP),
+            gif,
+            svg,
+        };
+        decoder = new SvgDecoder();
+        options = new Options();
+    }
+
+    // One pass over the corpus per iteration, streams wrapped the way Glide hands them to decoders
+    @Test
+    public void svgDecoderHandlesMixedCorpus() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (byte[] image : corpus) {
+                decoder.handles(new BufferedInputStream(new ByteArrayInputStream(image)), options);
+            }
+        }
+    }
+
+    @Test
+    public void detectMixedCorpus() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (byte[] image : corpus) {
+                ImageFormatSniffer.detect(image, Math.min(image.length, ImageFormatSniffer.HEADER_SIZE));
+            }
+        }
+    }
+
+    private static byte[] compress(Bitmap.CompressFormat format) {
+        Bitmap bitmap = Bitmap.createBitmap(64, 64, Bitmap.Config.ARGB_8888);
+        bitmap.eraseColor(Color.rgb(255, 99, 71));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bitmap.compress(format, 90, output);
+        bitmap.recycle();
+        return output.toByteArray();
+    }
+}
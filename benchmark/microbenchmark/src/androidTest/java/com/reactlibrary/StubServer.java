@@ -0,0 +1,58 @@
+package com.xerdnu.blastedimage;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import androidx.annotation.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+// Local HTTP server answering every path with the same JPEG, so network benchmarks don't depend on a real CDN
+final class StubServer {
+
+    private final MockWebServer server = new MockWebServer();
+    private final byte[] image;
+
+    private StubServer(byte[] image) {
+        this.image = image;
+    }
+
+    static StubServer start(int imageSize) throws IOException {
+        final StubServer stub = new StubServer(createJpeg(imageSize));
+        stub.server.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) {
+                return new MockResponse()
+                    .setHeader("Content-Type", "image/jpeg")
+                    .setBody(new Buffer().write(stub.image));
+            }
+        });
+        stub.server.start();
+        return stub;
+    }
+
+    String url(String path) {
+        return server.url(path).toString();
+    }
+
+    void shutdown() throws IOException {
+        server.shutdown();
+    }
+
+    private static byte[] createJpeg(int size) {
+        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        bitmap.eraseColor(Color.rgb(46, 139, 87));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.JPEG, 85, output);
+        bitmap.recycle();
+        return output.toByteArray();
+    }
+}
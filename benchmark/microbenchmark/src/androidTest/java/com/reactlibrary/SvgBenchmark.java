@@ -0,0 +1,125 @@
+package com.xerdnu.blastedimage;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Picture;
+import android.graphics.drawable.BitmapDrawable;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.caverock.androidsvg.SVG;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+// SVG decode and rasterization at a bucketed size, and the per-frame draw cost of the bitmap against the Picture it replaced
+@RunWith(AndroidJUnit4.class)
+public class SvgBenchmark {
+
+    private static final int SIZE = 256;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private byte[] svgBytes;
+    private Options options;
+    private LruBitmapPool bitmapPool;
+    private SvgDecoder decoder;
+    private SvgDrawableTranscoder transcoder;
+    private Bitmap frame;
+    private Canvas frameCanvas;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        svgBytes = createSvg(40).getBytes(StandardCharsets.UTF_8);
+        options = new Options();
+        bitmapPool = new LruBitmapPool(4 * SIZE * SIZE * 4);
+        decoder = new SvgDecoder();
+        transcoder = new SvgDrawableTranscoder(context.getResources(), bitmapPool);
+        frame = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        frameCanvas = new Canvas(frame);
+    }
+
+    @After
+    public void tearDown() {
+        bitmapPool.clearMemory();
+        frame.recycle();
+    }
+
+    @Test
+    public void decode() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            decoder.decode(new ByteArrayInputStream(svgBytes), SIZE, SIZE, options);
+        }
+    }
+
+    // Rasterizing into a pooled bitmap, recycled each time as the memory cache would on eviction
+    @Test
+    public void transcode() throws Exception {
+        Resource<SVG> svg = decoder.decode(new ByteArrayInputStream(svgBytes), SIZE, SIZE, options);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Resource<BitmapDrawable> drawable = transcoder.transcode(svg, options);
+            drawable.get();
+            drawable.recycle();
+        }
+    }
+
+    @Test
+    public void drawRaster() throws Exception {
+        Resource<SVG> svg = decoder.decode(new ByteArrayInputStream(svgBytes), SIZE, SIZE, options);
+        Resource<BitmapDrawable> resource = transcoder.transcode(svg, options);
+        BitmapDrawable drawable = resource.get();
+        drawable.setBounds(0, 0, SIZE, SIZE);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            drawable.draw(frameCanvas);
+        }
+        resource.recycle();
+    }
+
+    // What every frame cost before SVGs were rasterized
+    @Test
+    public void drawPicture() throws Exception {
+        Resource<SVG> svg = decoder.decode(new ByteArrayInputStream(svgBytes), SIZE, SIZE, options);
+        Picture picture = svg.get().renderToPicture();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            frameCanvas.drawPicture(picture);
+        }
+    }
+
+    // An icon-like document with a number of paths and gradients
+    private static String createSvg(int shapes) {
+        StringBuilder svg = new StringBuilder();
+        svg.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+        svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"24\" height=\"24\" viewBox=\"0 0 24 24\">");
+        svg.append("<defs><linearGradient id=\"g\" x1=\"0\" y1=\"0\" x2=\"1\" y2=\"1\">");
+        svg.append("<stop offset=\"0\" stop-color=\"#1e90ff\"/><stop offset=\"1\" stop-color=\"#ff6347\"/></linearGradient></defs>");
+        for (int i = 0; i < shapes; i++) {
+            float offset = (i % 10) * 1.5f;
+            svg.append("<path fill=\"url(#g)\" fill-opacity=\"0.4\" d=\"M")
+                .append(offset).append(' ').append(2 + i % 7)
+                .append(" C").append(offset + 4).append(" 0 ").append(offset + 8).append(" 12 ")
+                .append(offset + 12).append(" 6 L").append(22 - offset).append(" 22 Z\"/>");
+        }
+        svg.append("<circle cx=\"12\" cy=\"12\" r=\"5\" stroke=\"#333\" stroke-width=\"1.5\" fill=\"none\"/>");
+        svg.append("</svg>");
+        return svg.toString();
+    }
+}
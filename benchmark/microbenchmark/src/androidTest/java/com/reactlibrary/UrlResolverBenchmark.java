@@ -0,0 +1,106 @@
+package com.xerdnu.blastedimage;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.util.Base64;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReactApplicationContext;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+
+// The work done for every source before a request starts. BenchmarkRule reports allocations next to the time.
+@RunWith(AndroidJUnit4.class)
+public class UrlResolverBenchmark {
+
+    private static final String URL = "https://cdn.example.com/images/photo.jpg?v=3";
+    private static final String CLOUD_URL = "https://firebasestorage.googleapis.com/v0/b/app.appspot.com/o/";
+    private static final String CLOUD_IMAGE_URL = CLOUD_URL + "images%2Favatars%2Fuser.png?alt=media&token=0f1e2d3c";
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private BlastedUrlResolver resolver;
+    private JavaOnlyMap headers;
+    private String dataUri;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        ReactApplicationContext reactContext = new ReactApplicationContext(context);
+        BlastedImageModule.ensureGlideInitialized(reactContext);
+        resolver = BlastedUrlResolver.getInstance(reactContext);
+        headers = JavaOnlyMap.of("Authorization", "Bearer 3f9a1c", "X-Client", "benchmark");
+        dataUri = createDataUri(64);
+    }
+
+    @Test
+    public void prepareGlideUrlPlain() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            resolver.prepareGlideUrl(URL, false, null, false, null, null);
+        }
+    }
+
+    @Test
+    public void prepareGlideUrlHeaders() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            resolver.prepareGlideUrl(URL, false, null, false, headers, null);
+        }
+    }
+
+    @Test
+    public void prepareGlideUrlCacheKey() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            resolver.prepareGlideUrl(URL, false, null, false, null, "photo-3");
+        }
+    }
+
+    // The image isn't bundled, so this is the lookup that falls back to the remote url
+    @Test
+    public void prepareGlideUrlHybridAssets() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            resolver.prepareGlideUrl(CLOUD_IMAGE_URL, true, CLOUD_URL, false, null, null);
+        }
+    }
+
+    @Test
+    public void prepareGlideUrlDataUri() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            resolver.prepareGlideUrl(dataUri, false, null, false, null, null);
+        }
+    }
+
+    @Test
+    public void extractImagePathFromUrl() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            resolver.extractImagePathFromUrl(CLOUD_IMAGE_URL, CLOUD_URL);
+        }
+    }
+
+    // A PNG data URI of a size typical for inlined icons
+    private static String createDataUri(int size) {
+        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        bitmap.eraseColor(Color.rgb(30, 144, 255));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.PNG, 100, output);
+        bitmap.recycle();
+        return "data:image/png;base64," + Base64.encodeToString(output.toByteArray(), Base64.NO_WRAP);
+    }
+}
@@ -0,0 +1,163 @@
+package com.xerdnu.blastedimage;
+
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.widget.FrameLayout;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.bumptech.glide.Glide;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.uimanager.ThemedReactContext;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Time from setSource to the first frame that draws the image, going through the view manager like React Native does.
+// Each benchmark starts from a different cache state, the previous view is dropped outside of the measured time.
+@RunWith(AndroidJUnit4.class)
+public class ViewBindBenchmark {
+
+    private static final int SIZE = 300;
+
+    private enum CacheState { MEMORY, DISK, NETWORK }
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Rule
+    public ActivityScenarioRule<BenchmarkActivity> activityRule = new ActivityScenarioRule<>(BenchmarkActivity.class);
+
+    private StubServer server;
+    private ThemedReactContext themedContext;
+    private FrameLayout container;
+    private BlastedViewManager viewManager;
+    private BlastedImageView view;
+
+    @Before
+    public void setUp() throws Exception {
+        server = StubServer.start(1024);
+        activityRule.getScenario().onActivity(new ActivityScenario.ActivityAction<BenchmarkActivity>() {
+            @Override
+            public void perform(BenchmarkActivity activity) {
+                ReactApplicationContext reactContext = new ReactApplicationContext(activity.getApplicationContext());
+                BlastedImageModule.ensureGlideInitialized(reactContext);
+                themedContext = new ThemedReactContext(reactContext, activity);
+                container = activity.getContainer();
+                viewManager = new BlastedViewManager();
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                dropView();
+            }
+        });
+        server.shutdown();
+        Glide.get(themedContext).clearDiskCache();
+    }
+
+    @Test
+    public void bindFromMemory() throws Exception {
+        measureBind(CacheState.MEMORY);
+    }
+
+    @Test
+    public void bindFromDisk() throws Exception {
+        measureBind(CacheState.DISK);
+    }
+
+    @Test
+    public void bindFromNetwork() throws Exception {
+        measureBind(CacheState.NETWORK);
+    }
+
+    private void measureBind(final CacheState cacheState) throws Exception {
+        final String url = server.url("/bind.jpg");
+        bind(url); // Warms the caches the first measured bind reads from
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    dropView();
+                    if (cacheState != CacheState.MEMORY) {
+                        Glide.get(themedContext).clearMemory();
+                    }
+                }
+            });
+            if (cacheState == CacheState.NETWORK) {
+                Glide.get(themedContext).clearDiskCache();
+            }
+            state.resumeTiming();
+
+            bind(url);
+        }
+    }
+
+    // Creates a view, applies the props of one update transaction and waits for the first draw of the loaded image
+    private void bind(final String url) throws InterruptedException {
+        final CountDownLatch drawn = new CountDownLatch(1);
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final BlastedImageView newView = viewManager.createViewInstance(themedContext);
+                container.addView(newView, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+                viewManager.setWidth(newView, SIZE);
+                viewManager.setHeight(newView, SIZE);
+                viewManager.setSource(newView, JavaOnlyMap.of("uri", url));
+                newView.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+                    @Override
+                    public void onDraw() {
+                        if (newView.getDrawable() != null && drawn.getCount() > 0) {
+                            drawn.countDown();
+                            final ViewTreeObserver.OnDrawListener listener = this;
+                            newView.post(new Runnable() { // Listeners can't be removed while they are dispatched
+                                @Override
+                                public void run() {
+                                    newView.getViewTreeObserver().removeOnDrawListener(listener);
+                                }
+                            });
+                        }
+                    }
+                });
+                viewManager.onAfterUpdateTransaction(newView);
+                view = newView;
+            }
+        });
+        if (!drawn.await(30, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Image was not drawn within 30 seconds");
+        }
+    }
+
+    // Runs on the main thread, the same cleanup React Native does when a view is removed
+    private void dropView() {
+        if (view != null) {
+            container.removeView(view);
+            viewManager.onDropViewInstance(view);
+            view = null;
+        }
+    }
+
+    private static void runOnMainSync(Runnable runnable) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(runnable);
+    }
+}
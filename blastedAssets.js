@@ -17,6 +17,38 @@ function copyAssets(srcDir, destDir, platform) {
   }
 }
 
+// Writes the list of bundled files next to the blasted-image folder so Android can look them up without probing the APK
+function writeAssetIndex(assetsDir, folderName) {
+  const indexFile = path.join(assetsDir, `${folderName}-index.txt`);
+  const folder = path.join(assetsDir, folderName);
+
+  try {
+    if (!fs.existsSync(folder)) {
+      fs.removeSync(indexFile);
+      return;
+    }
+
+    const files = [];
+    const walk = (dir, relative) => {
+      fs.readdirSync(dir).forEach((name) => {
+        const fullPath = path.join(dir, name);
+        const relativePath = `${relative}/${name}`;
+        if (fs.statSync(fullPath).isDirectory()) {
+          walk(fullPath, relativePath);
+        } else {
+          files.push(relativePath);
+        }
+      });
+    };
+    walk(folder, folderName);
+
+    fs.writeFileSync(indexFile, files.join('\n') + '\n');
+    console.log(`[BlastedImage][Android] Wrote asset index with ${files.length} files`);
+  } catch (err) {
+    console.error('[BlastedImage][Android] Error writing asset index:', err);
+  }
+}
+
 const blastedAssets = (config, options = {}) => {
   config = withDangerousMod(config, [
     'android',
@@ -31,6 +63,7 @@ const blastedAssets = (config, options = {}) => {
       );
       const absoluteSrcPath = path.resolve(options.assetsPath || process.env.ASSETS_PATH || './assets/blasted-image');
       copyAssets(absoluteSrcPath, androidDir, 'Android');
+      writeAssetIndex(path.dirname(androidDir), 'blasted-image');
       return config;
     },
   ]);
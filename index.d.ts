@@ -13,6 +13,10 @@ declare module 'react-native-blasted-image' {
       hybridAssets?: boolean;
       cloudUrl?: string | null;
       cacheKey?: string | null;
+      thumbnail?: string | number;
+      blurhash?: string;
+      ttl?: number;
+      animated?: boolean;
     }
 
     interface BlastedImageProps {
@@ -30,9 +34,148 @@ declare module 'react-native-blasted-image' {
       retries?: number;
       tintColor?: string;
       cacheKeyExtractor?: (uri: string) => string;
+      downsample?: 'atMost' | 'atLeast' | 'centerInside' | 'centerOutside' | 'fitCenter' | 'none';
+      bitmapConfig?: 'ARGB_8888' | 'RGB_565' | 'HARDWARE';
+      decodeScale?: number;
+      autoplay?: boolean;
+      loopCount?: number;
     }
   
+    type PreloadPriority = 'visible' | 'nextPage' | 'background';
+
+    interface PreloadImage {
+      uri: string;
+      headers?: { [key: string]: string };
+      skipMemoryCache?: boolean;
+      hybridAssets?: boolean;
+      cloudUrl?: string | null;
+      cacheKey?: string | null;
+      priority?: PreloadPriority;
+      ttl?: number;
+      animated?: boolean;
+      width?: number;
+      height?: number;
+      resizeMode?: 'cover' | 'contain' | 'stretch' | 'center';
+      downsample?: BlastedImageProps['downsample'];
+      bitmapConfig?: BlastedImageProps['bitmapConfig'];
+      decodeScale?: number;
+    }
+
+    interface PreloadBatchResult {
+      total: number;
+      loaded: number;
+      failed: number;
+      items: Array<{
+        uri: string;
+        status: 'loaded' | 'failed';
+        source: 'MEMORY' | 'DISK' | 'NETWORK' | 'LOCAL' | null;
+        error: string | null;
+        attempts?: number;
+      }>;
+    }
+
+    interface CacheConfig {
+      memoryCacheFraction?: number;
+      memoryCacheSize?: number;
+      bitmapPoolFraction?: number;
+      bitmapPoolSize?: number;
+      animatedCacheFraction?: number;
+      diskCacheSize?: number;
+      diskCacheDirectory?: string;
+      diskCacheLocation?: 'internal' | 'external';
+      memoryCategory?: 'low' | 'normal' | 'high';
+      maxRequests?: number;
+      maxRequestsPerHost?: number;
+      maxIdleConnections?: number;
+      keepAliveDuration?: number;
+      coalesceRequests?: boolean;
+      networkRetries?: number;
+      retryBaseDelay?: number;
+      circuitBreakerThreshold?: number;
+      circuitBreakerCooldown?: number;
+      cdnRewrite?: {
+        hosts: string[];
+        widthParam?: string | null;
+        heightParam?: string | null;
+        formatParam?: string | null;
+      } | null;
+      cacheTtl?: number;
+      sourceThreads?: number;
+      diskCacheThreads?: number;
+      animationThreads?: number;
+    }
+
+    interface CacheConfigResult {
+      memoryCacheSize: number;
+      bitmapPoolSize: number;
+      animatedCacheFraction: number;
+      diskCacheSize: number;
+      diskCacheDirectory: string;
+      diskCacheLocation: 'internal' | 'external';
+      cacheTtl: number;
+      sourceThreads: number;
+      diskCacheThreads: number;
+      animationThreads: number;
+      applied: boolean;
+    }
+
+    interface CacheBundleResult {
+      entries: number;
+      skipped: number;
+      bytes: number;
+    }
+
+    interface CacheSize {
+      diskBytes: number;
+      indexedBytes: number;
+      indexedEntries: number;
+    }
+
+    interface LoadMetrics {
+      url: string;
+      dataSource: 'MEMORY' | 'DISK' | 'NETWORK' | 'LOCAL' | null;
+      queueWait: number;
+      fetchTime: number;
+      decodeTime: number;
+      totalTime: number;
+      bytesDownloaded: number;
+      decodedBytes: number;
+      failed: boolean;
+    }
+
+    interface BlastedImageStats {
+      requests: {
+        started: number;
+        completed: number;
+        failed: number;
+        cancelled: number;
+        coalescedFetches: number;
+        coalescedRequests: number;
+        retries: number;
+        circuitBreakerRejections: number;
+      };
+      scroll: { pauses: number; frames: number; droppedFrames: number };
+      loads: number;
+      loadFailures: number;
+      hitRatio: { memory: number; disk: number; local: number; network: number };
+      latency: { p50: number; p95: number };
+      bytesDownloaded: number;
+      bytesWasted: number;
+      bytesDecoded: number;
+      recent: Array<LoadMetrics>;
+    }
+
     interface BlastedImageStatic {
+      configure(options: CacheConfig): Promise<CacheConfigResult | null>;
+      getStats(): Promise<BlastedImageStats | null>;
+      resetStats(): Promise<null>;
+      isCached(key: string): Promise<boolean | null>;
+      isCached(keys: string[]): Promise<{ [key: string]: boolean } | null>;
+      isCachedSync(key: string): boolean;
+      evict(keyOrPrefix: string, options?: { prefix?: boolean }): Promise<number | null>;
+      getCacheSize(): Promise<CacheSize | null>;
+      exportCache(keys: string[], path: string): Promise<CacheBundleResult | null>;
+      importCache(path: string, options?: { overwrite?: boolean; ttl?: number }): Promise<CacheBundleResult | null>;
       clearMemoryCache(): void;
       clearDiskCache(): void;
       clearAllCaches(): void;
@@ -40,14 +183,44 @@ declare module 'react-native-blasted-image' {
         input:
             | { uri: string; headers?: { [key: string]: string }; skipMemoryCache?: boolean; hybridAssets?: boolean; cloudUrl?: string | null; cacheKey?: string | null }
             | Array<{ uri: string; headers?: { [key: string]: string }; skipMemoryCache?: boolean; hybridAssets?: boolean; cloudUrl?: string | null; cacheKey?: string | null }>,
-        options?: {
+        options?: number | {
           retries?: number;
+          priority?: PreloadPriority;
+          concurrency?: number;
           onLoad?: (uri: string) => void;
           onError?: (uri: string, error: Error) => void;
         }
     ): Promise<void>;
+      preloadBatch(
+        images: Array<PreloadImage>,
+        options?: {
+          retries?: number;
+          priority?: PreloadPriority;
+          concurrency?: number;
+        }
+    ): Promise<PreloadBatchResult>;
     }
   
+    interface BlastedScrollOptions<T> {
+      data: ReadonlyArray<T> | null | undefined;
+      getImage: (item: T, index: number) => PreloadImage | null | undefined;
+      prefetchCount?: number;
+      flingVelocity?: number;
+      pauseOnFling?: boolean;
+    }
+
+    interface BlastedScrollHandlers {
+      onScroll: (event: any) => void;
+      onScrollBeginDrag: () => void;
+      onScrollEndDrag: () => void;
+      onMomentumScrollBegin: () => void;
+      onMomentumScrollEnd: () => void;
+      onViewableItemsChanged: (info: { viewableItems: Array<{ index: number | null }> }) => void;
+      scrollEventThrottle: number;
+    }
+
+    export function useBlastedScroll<T>(options: BlastedScrollOptions<T>): BlastedScrollHandlers;
+
     const BlastedImage: React.FC<BlastedImageProps> & BlastedImageStatic;
   
     export function loadImage(
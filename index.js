@@ -1,13 +1,15 @@
 import React, { useState, useEffect, useRef, useCallback } from 'react';
-import { requireNativeComponent, NativeModules, Platform, Image, View } from 'react-native';
+import { NativeModules, Platform, Image, View } from 'react-native';
+import NativeBlastedImageModule from './src/NativeBlastedImage';
+import BlastedImageView from './src/BlastedImageViewNativeComponent';
 
 const LINKING_ERROR =
 	`The package 'react-native-blasted-image' doesn't seem to be linked. Make sure: \n\n` +
 	Platform.select({ ios: "- You have run 'pod install'\n", default: '' }) +
 	'- You rebuilt the app after installing the package';
 
-const NativeBlastedImage = NativeModules.BlastedImage
-? NativeModules.BlastedImage
+const NativeBlastedImage = NativeBlastedImageModule || NativeModules.BlastedImage
+? NativeBlastedImageModule || NativeModules.BlastedImage
 : new Proxy(
 	{},
 	{
@@ -17,8 +19,6 @@ const NativeBlastedImage = NativeModules.BlastedImage
 	}
 );
 
-const BlastedImageView = requireNativeComponent('BlastedImageView');
-
 const requestsCache = {};
 
 export const loadImage = (imageUrl, skipMemoryCache = false, hybridAssets = false, cloudUrl = null, headers = null, retries = 3, cacheKey = null) => {
@@ -27,6 +27,11 @@ export const loadImage = (imageUrl, skipMemoryCache = false, hybridAssets = fals
 		retries = 1;
 	}
 
+	// Android retries failed downloads natively with backoff, see networkRetries in configure()
+	if (Platform.OS === 'android') {
+		retries = 1;
+	}
+
 	if (hybridAssets && cloudUrl === null) {
 		console.error("When using hybridAssets, you must specify a cloudUrl prop. This is the base URL where the local assets are hosted.");
 		hybridAssets = false;
@@ -74,6 +79,11 @@ const BlastedImage = ({
 	tintColor = null,
 	retries = 3,
 	cacheKeyExtractor = null,
+	downsample = null,
+	bitmapConfig = null,
+	decodeScale = 1,
+	autoplay = true,
+	loopCount = -1,
 	source,
 	width,
 	onLoad,
@@ -237,6 +247,8 @@ const BlastedImage = ({
 		height,
 	};
 
+	const decodeOptions = { downsample, bitmapConfig, decodeScale, autoplay, loopCount };
+
 	const childrenStyle = {
 	  position: 'absolute',
 	  top: 0,
@@ -251,17 +263,17 @@ const BlastedImage = ({
 	  <View style={!isBackground ? viewStyle : null}>
 		{isBackground ? (
 		  <View style={viewStyle}>
-			{renderImageContent(error, source, fallbackSource, tintColor, adjustedHeight, adjustedWidth, resizeMode, renderKey)}
+			{renderImageContent(error, source, fallbackSource, tintColor, adjustedHeight, adjustedWidth, resizeMode, renderKey, decodeOptions)}
 		  </View>
 		) : (
-		  renderImageContent(error, source, fallbackSource, tintColor, adjustedHeight, adjustedWidth, resizeMode, renderKey)
+		  renderImageContent(error, source, fallbackSource, tintColor, adjustedHeight, adjustedWidth, resizeMode, renderKey, decodeOptions)
 		)}
 		{isBackground && <View style={childrenStyle}>{children}</View>}
 	  </View>
 	);
 };
 
-function renderImageContent(error, source, fallbackSource, tintColor, adjustedHeight, adjustedWidth, resizeMode, renderKey) {
+function renderImageContent(error, source, fallbackSource, tintColor, adjustedHeight, adjustedWidth, resizeMode, renderKey, decodeOptions) {
 	if (error) {
 		if (fallbackSource) { // Error - Fallback specified, use native component
 			return (
@@ -309,6 +321,7 @@ function renderImageContent(error, source, fallbackSource, tintColor, adjustedHe
 			  height={adjustedHeight}
 			  resizeMode={resizeMode}
 			  tintColor={tintColor}
+			  {...decodeOptions}
 			/>
 		) : (
 			<BlastedImageView
@@ -317,11 +330,87 @@ function renderImageContent(error, source, fallbackSource, tintColor, adjustedHe
 			  height={adjustedHeight}
 			  resizeMode={resizeMode}
 			  tintColor={tintColor}
+			  {...decodeOptions}
 			/>
 		);
 	}
 }
 
+// configure cache sizes, call before the first image is loaded
+BlastedImage.configure = (options = {}) => {
+	if (typeof NativeBlastedImage.configure !== 'function') {
+		return Promise.resolve(null);
+	}
+	return NativeBlastedImage.configure(options);
+};
+
+// counters and metrics for image requests
+BlastedImage.getStats = () => {
+	if (typeof NativeBlastedImage.getStats !== 'function') {
+		return Promise.resolve(null);
+	}
+	return NativeBlastedImage.getStats();
+};
+
+// reset counters and metrics
+BlastedImage.resetStats = () => {
+	if (typeof NativeBlastedImage.resetStats !== 'function') {
+		return Promise.resolve(null);
+	}
+	return NativeBlastedImage.resetStats();
+};
+
+// whether images are in the disk cache and not expired, keys are cache keys or urls
+BlastedImage.isCached = (keys) => {
+	if (typeof NativeBlastedImage.isCached !== 'function') {
+		return Promise.resolve(null);
+	}
+	const list = Array.isArray(keys) ? keys : [keys];
+	return NativeBlastedImage.isCached(list).then((result) =>
+		Array.isArray(keys) ? result : result[keys] === true
+	);
+};
+
+// same lookup for one key without a round trip, e.g. to pick a placeholder during render
+BlastedImage.isCachedSync = (key) => {
+	if (typeof NativeBlastedImage.isCachedSync !== 'function') {
+		return false;
+	}
+	return NativeBlastedImage.isCachedSync(key);
+};
+
+// remove a single image, or all indexed images whose key starts with the prefix, from the disk cache
+BlastedImage.evict = (keyOrPrefix, options = {}) => {
+	if (typeof NativeBlastedImage.evict !== 'function') {
+		return Promise.resolve(null);
+	}
+	return NativeBlastedImage.evict(keyOrPrefix, options.prefix === true);
+};
+
+// disk cache usage in bytes
+BlastedImage.getCacheSize = () => {
+	if (typeof NativeBlastedImage.getCacheSize !== 'function') {
+		return Promise.resolve(null);
+	}
+	return NativeBlastedImage.getCacheSize();
+};
+
+// pack the disk cache entries of the given keys (cache keys or urls) into one file
+BlastedImage.exportCache = (keys, path) => {
+	if (typeof NativeBlastedImage.exportCache !== 'function') {
+		return Promise.resolve(null);
+	}
+	return NativeBlastedImage.exportCache(keys, path);
+};
+
+// load a file created by exportCache into the disk cache
+BlastedImage.importCache = (path, options = {}) => {
+	if (typeof NativeBlastedImage.importCache !== 'function') {
+		return Promise.resolve(null);
+	}
+	return NativeBlastedImage.importCache(path, options);
+};
+
 // clear memory cache
 BlastedImage.clearMemoryCache = () => {
   	return NativeBlastedImage.clearMemoryCache();
@@ -370,6 +459,31 @@ BlastedImage.preload = (input, options = {}) => {
 				return;
 			}
 
+			// Native batch preload, one bridge call for the whole list
+			if (typeof NativeBlastedImage.preloadBatch === 'function') {
+				NativeBlastedImage.preloadBatch(input, { retries, priority: options.priority, concurrency: options.concurrency })
+					.then(({ items }) => {
+						items.forEach(item => {
+							if (item.status === 'loaded') {
+								if (onLoad) {
+									onLoad(item.uri);
+								}
+							} else {
+								console.error(`Error preloading one of the array images: ${item.uri}`, item.error);
+								if (onError) {
+									onError(item.uri, new Error(item.error));
+								}
+							}
+						});
+						resolve();
+					})
+					.catch((err) => {
+						console.error('Error preloading images', err);
+						resolve();
+					});
+				return;
+			}
+
 			input.forEach(image => {
 				loadImage(image.uri, image.skipMemoryCache, image.hybridAssets, image.cloudUrl, image.headers, retries, image.cacheKey)
 					.then(() => {
@@ -397,4 +511,155 @@ BlastedImage.preload = (input, options = {}) => {
 };
 
 
+// preload a list of images and resolve once with the status of every item
+BlastedImage.preloadBatch = (images, options = {}) => {
+	// Android retries failed downloads natively with backoff, requesting the image again would multiply the attempts
+	const retries = Platform.OS === 'android' ? 1 : (options.retries || 3);
+
+	if (typeof NativeBlastedImage.preloadBatch === 'function') {
+		return NativeBlastedImage.preloadBatch(images, { retries, priority: options.priority, concurrency: options.concurrency });
+	}
+
+	// Fallback for platforms without a native batch implementation
+	return Promise.all(images.map(image =>
+		loadImage(image.uri, image.skipMemoryCache, image.hybridAssets, image.cloudUrl, image.headers, retries, image.cacheKey)
+			.then(() => ({ uri: image.uri, status: 'loaded', source: null, error: null }))
+			.catch((err) => ({ uri: image.uri, status: 'failed', source: null, error: err?.message || String(err) }))
+	)).then(items => {
+		const loaded = items.filter(item => item.status === 'loaded').length;
+		return { total: items.length, loaded, failed: items.length - loaded, items };
+	});
+};
+
+let nextScrollListId = 1;
+
+// Scroll handlers for a FlatList/ScrollView. Pauses image requests while the list flings and preloads the
+// next `prefetchCount` items at their view size once scrolling slows down. getImage(item, index) returns the
+// same source the cell renders, plus width/height (and resizeMode etc. if set) so the preload matches the view.
+export const useBlastedScroll = ({ data = [], getImage, prefetchCount = 6, flingVelocity = 2, pauseOnFling = true } = {}) => {
+	const listId = useRef(null);
+	const state = useRef({ data, getImage, prefetchCount, flingVelocity, pauseOnFling });
+	const scroll = useRef({ offset: 0, time: 0, direction: 1, lastVisible: -1, firstVisible: 0, mode: 'idle' });
+	const prefetched = useRef(new Set());
+	const endDragTimer = useRef(null);
+
+	if (listId.current === null) {
+		listId.current = nextScrollListId++;
+	}
+	state.current = { data, getImage, prefetchCount, flingVelocity, pauseOnFling };
+
+	const setMode = useCallback((mode) => {
+		if (scroll.current.mode === mode) {
+			return;
+		}
+		scroll.current.mode = mode;
+		if (typeof NativeBlastedImage.setScrollState === 'function') {
+			NativeBlastedImage.setScrollState(listId.current, mode);
+		}
+	}, []);
+
+	const prefetch = useCallback(() => {
+		const { data, getImage, prefetchCount } = state.current;
+		const { direction, lastVisible, firstVisible } = scroll.current;
+		if (typeof getImage !== 'function' || !data || prefetchCount <= 0 || lastVisible < 0) {
+			return;
+		}
+
+		const images = [];
+		for (let i = 1; i <= prefetchCount; i++) {
+			const index = direction > 0 ? lastVisible + i : firstVisible - i;
+			if (index < 0 || index >= data.length) {
+				break;
+			}
+			const image = getImage(data[index], index);
+			if (!image || !image.uri) {
+				continue;
+			}
+			const key = `${image.uri}::${image.width || 0}x${image.height || 0}`;
+			if (!prefetched.current.has(key)) {
+				prefetched.current.add(key);
+				images.push(image);
+			}
+		}
+
+		if (images.length > 0) {
+			BlastedImage.preloadBatch(images, { priority: 'nextPage', retries: 1 }).catch(() => {});
+		}
+	}, []);
+
+	const onScroll = useCallback((event) => {
+		const { contentOffset } = event.nativeEvent;
+		const offset = Math.abs(contentOffset.y) > Math.abs(contentOffset.x) ? contentOffset.y : contentOffset.x;
+		const now = Date.now();
+		const { time, offset: lastOffset } = scroll.current;
+
+		scroll.current.offset = offset;
+		scroll.current.time = now;
+		if (time === 0 || now === time) {
+			return;
+		}
+
+		const velocity = (offset - lastOffset) / (now - time); // px per ms
+		if (velocity !== 0) {
+			scroll.current.direction = velocity > 0 ? 1 : -1;
+		}
+
+		const { flingVelocity, pauseOnFling } = state.current;
+		if (pauseOnFling && Math.abs(velocity) > flingVelocity) {
+			setMode('fling');
+		} else if (Math.abs(velocity) < flingVelocity / 2 && scroll.current.mode !== 'idle') {
+			// Slowing down, resume requests and get the next items ready
+			setMode('scrolling');
+			prefetch();
+		}
+	}, [setMode, prefetch]);
+
+	const onScrollBegin = useCallback(() => {
+		clearTimeout(endDragTimer.current);
+		setMode('scrolling');
+	}, [setMode]);
+
+	const onScrollEnd = useCallback(() => {
+		clearTimeout(endDragTimer.current);
+		scroll.current.time = 0;
+		setMode('idle');
+		prefetch();
+	}, [setMode, prefetch]);
+
+	// A drag without momentum has no momentum end event, settle unless momentum starts right after
+	const onScrollEndDrag = useCallback(() => {
+		clearTimeout(endDragTimer.current);
+		endDragTimer.current = setTimeout(onScrollEnd, 100);
+	}, [onScrollEnd]);
+
+	const onViewableItemsChanged = useCallback(({ viewableItems }) => {
+		const indexes = viewableItems.map(item => item.index).filter(index => typeof index === 'number');
+		if (indexes.length === 0) {
+			return;
+		}
+		scroll.current.firstVisible = Math.min(...indexes);
+		scroll.current.lastVisible = Math.max(...indexes);
+		if (scroll.current.mode !== 'fling') {
+			prefetch();
+		}
+	}, [prefetch]);
+
+	useEffect(() => () => {
+		clearTimeout(endDragTimer.current);
+		if (scroll.current.mode !== 'idle' && typeof NativeBlastedImage.setScrollState === 'function') {
+			NativeBlastedImage.setScrollState(listId.current, 'idle');
+		}
+	}, []);
+
+	return {
+		onScroll,
+		onScrollBeginDrag: onScrollBegin,
+		onScrollEndDrag,
+		onMomentumScrollBegin: onScrollBegin,
+		onMomentumScrollEnd: onScrollEnd,
+		onViewableItemsChanged,
+		scrollEventThrottle: 16,
+	};
+};
+
 export default BlastedImage;
@@ -0,0 +1,25 @@
+// @flow strict-local
+// Fabric component spec of BlastedImageView. Codegen generates the props and the Android
+// BlastedImageViewManagerDelegate from it, on the old architecture this is the legacy view manager.
+
+import type { HostComponent } from 'react-native';
+import type { ViewProps } from 'react-native/Libraries/Components/View/ViewPropTypes';
+import type { Float, Int32, UnsafeMixed, WithDefault } from 'react-native/Libraries/Types/CodegenTypes';
+import codegenNativeComponent from 'react-native/Libraries/Utilities/codegenNativeComponent';
+
+type NativeProps = $ReadOnly<{|
+	...ViewProps,
+	// uri, headers, cacheKey, thumbnail, ... are read by BlastedViewManager, kept untyped so new keys need no codegen change
+	source?: UnsafeMixed,
+	resizeMode?: ?string,
+	width?: WithDefault<Int32, 0>,
+	height?: WithDefault<Int32, 0>,
+	tintColor?: ?string,
+	downsample?: ?string,
+	bitmapConfig?: ?string,
+	decodeScale?: WithDefault<Float, 1.0>,
+	autoplay?: WithDefault<boolean, true>,
+	loopCount?: WithDefault<Int32, -1>,
+|}>;
+
+export default (codegenNativeComponent<NativeProps>('BlastedImageView'): HostComponent<NativeProps>);
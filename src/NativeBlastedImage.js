@@ -0,0 +1,35 @@
+// @flow strict-local
+// TurboModule spec of the native module. React Native's codegen reads it to generate NativeBlastedImageSpec
+// (see codegenConfig in package.json), on the old architecture TurboModuleRegistry returns the bridge module.
+
+import type { TurboModule } from 'react-native/Libraries/TurboModule/RCTExport';
+import { TurboModuleRegistry } from 'react-native';
+
+export interface Spec extends TurboModule {
+	+addListener: (eventName: string) => void;
+	+removeListeners: (count: number) => void;
+	+setScrollState: (listId: number, state: string) => void;
+	+configure: (options: Object) => Promise<Object>;
+	+loadImage: (
+		imageUrl: string,
+		skipMemoryCache: boolean,
+		hybridAssets: boolean,
+		cloudUrl: ?string,
+		headers: ?Object,
+		cacheKey: ?string,
+	) => Promise<boolean>;
+	+preloadBatch: (images: Array<Object>, options: ?Object) => Promise<Object>;
+	+getStats: () => Promise<Object>;
+	+resetStats: () => Promise<void>;
+	+isCached: (keys: Array<string>) => Promise<Object>;
+	+isCachedSync: (key: string) => boolean;
+	+evict: (keyOrPrefix: string, prefix: boolean) => Promise<number>;
+	+getCacheSize: () => Promise<Object>;
+	+exportCache: (keys: Array<string>, path: string) => Promise<Object>;
+	+importCache: (path: string, options: ?Object) => Promise<Object>;
+	+clearMemoryCache: () => Promise<void>;
+	+clearDiskCache: () => Promise<void>;
+	+clearAllCaches: () => Promise<void>;
+}
+
+export default (TurboModuleRegistry.get<Spec>('BlastedImage'): ?Spec);